@@ -0,0 +1,48 @@
+package com.example.studentmanagement.benchmark;
+
+import com.example.studentmanagement.dto.EnrollmentDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialization only, so no database: the list sizes mirror typical roster and export responses
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnrollmentJsonBenchmark {
+
+    @Param({"100", "10000"})
+    public int rows;
+
+    private ObjectMapper objectMapper;
+
+    private List<EnrollmentDTO> enrollments;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        enrollments = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            enrollments.add(new EnrollmentDTO(i, i % 200, "First" + i + " Last" + i, "Course " + i % 200,
+                    "BC" + i % 200, LocalDate.of(2024, 1, 1).plusDays(i % 365), "A", 0L));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(enrollments);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.studentmanagement.benchmark;
+
+import com.example.studentmanagement.dto.EnrollmentCursor;
+import com.example.studentmanagement.dto.EnrollmentDTO;
+import com.example.studentmanagement.entity.Enrollment;
+import com.example.studentmanagement.repository.EnrollmentRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnrollmentRepositoryBenchmark {
+
+    private EnrollmentRepository enrollmentRepository;
+
+    @Setup
+    public void setUp(SeededDatabase database) {
+        enrollmentRepository = database.bean(EnrollmentRepository.class);
+    }
+
+    @Benchmark
+    public List<Enrollment> findByCourseId(SeededDatabase database) {
+        return enrollmentRepository.findById_CourseId(database.nextCourseId());
+    }
+
+    @Benchmark
+    public List<EnrollmentDTO> findDTOsByCourseId(SeededDatabase database) {
+        return enrollmentRepository.findDTOsByCourseId(database.nextCourseId());
+    }
+
+    @Benchmark
+    public List<Enrollment> findByStudentId(SeededDatabase database) {
+        return enrollmentRepository.findById_StudentId(database.nextStudentId());
+    }
+
+    @Benchmark
+    public List<EnrollmentDTO> findDTOsByStudentId(SeededDatabase database) {
+        return enrollmentRepository.findDTOsByStudentId(database.nextStudentId());
+    }
+
+    @Benchmark
+    public List<EnrollmentDTO> seekPage(SeededDatabase database) {
+        return enrollmentRepository.findDTOsAfter(database.nextStudentId(), EnrollmentCursor.FIRST.getCourseId(),
+                PageRequest.ofSize(100));
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.studentmanagement.benchmark;
+
+import com.example.studentmanagement.StudentmanagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load test that runs the same mix of blocking JPA reads against the
+ * application twice: once on Tomcat platform threads, once with the "virtual" profile.
+ * Prints throughput and latency percentiles for each mode.
+ *
+ * <p>Arguments: {@code [clients] [seconds]}, defaulting to 400 clients for 20 seconds.
+ */
+public class RequestModeLoadTest {
+
+    private static final int ENROLLMENTS = 100_000;
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 400;
+        Duration duration = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 20);
+
+        List<String> report = new ArrayList<>();
+        for (String mode : List.of("platform", "virtual")) {
+            report.add(run(mode, clients, duration));
+        }
+        System.out.printf("%n%-10s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        report.forEach(System.out::println);
+    }
+
+    private static String run(String mode, int clients, Duration duration) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(StudentmanagementApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:loadtest-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        // Every client shares one address; measure the threads, not the rate limit
+                        "app.admission.enabled=false",
+                        "logging.level.root=WARN");
+        if (mode.equals("virtual")) {
+            builder.profiles("virtual");
+        }
+        try (ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) builder.run()) {
+            SeededDatabase.seed(context.getBean(JdbcTemplate.class), ENROLLMENTS);
+            String baseUrl = "http://localhost:" + context.getWebServer().getPort();
+
+            drive(baseUrl, clients, WARMUP);
+            long started = System.nanoTime();
+            Result result = drive(baseUrl, clients, duration);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            long[] latencies = result.latencies();
+            Arrays.sort(latencies);
+            return String.format("%-10s %10.0f %10.2f %10.2f %10.2f %8d", mode,
+                    latencies.length / seconds,
+                    percentile(latencies, 0.50) / 1e6,
+                    percentile(latencies, 0.99) / 1e6,
+                    latencies.length == 0 ? 0.0 : latencies[latencies.length - 1] / 1e6,
+                    result.errors());
+        }
+    }
+
+    private static Result drive(String baseUrl, int clients, Duration duration) throws Exception {
+        int students = ENROLLMENTS / SeededDatabase.COURSES_PER_STUDENT;
+        long deadline = System.nanoTime() + duration.toNanos();
+        // Virtual threads on the client side, so the generator itself is never the bottleneck
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder().executor(executor).build()) {
+            List<Future<Result>> futures = new ArrayList<>(clients);
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> {
+                    List<Long> latencies = new ArrayList<>();
+                    int errors = 0;
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        String path = random.nextInt(10) < 7
+                                ? "/api/enrollments/student/" + (random.nextInt(students) + 1)
+                                : "/api/enrollments/course/" + (random.nextInt(SeededDatabase.COURSES) + 1) + "/page?size=50";
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                latencies.add(System.nanoTime() - start);
+                            } else {
+                                errors++;
+                            }
+                        } catch (Exception e) {
+                            errors++;
+                        }
+                    }
+                    return new Result(latencies.stream().mapToLong(Long::longValue).toArray(), errors);
+                }));
+            }
+            List<Result> results = new ArrayList<>(clients);
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+            return Result.merge(results);
+        }
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private record Result(long[] latencies, int errors) {
+
+        static Result merge(List<Result> results) {
+            long[] merged = new long[results.stream().mapToInt(r -> r.latencies.length).sum()];
+            int offset = 0;
+            int errors = 0;
+            for (Result result : results) {
+                System.arraycopy(result.latencies, 0, merged, offset, result.latencies.length);
+                offset += result.latencies.length;
+                errors += result.errors;
+            }
+            return new Result(merged, errors);
+        }
+    }
+}
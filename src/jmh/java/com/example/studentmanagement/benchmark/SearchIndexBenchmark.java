@@ -0,0 +1,58 @@
+package com.example.studentmanagement.benchmark;
+
+import com.example.studentmanagement.dto.SearchHit;
+import com.example.studentmanagement.entity.Student;
+import com.example.studentmanagement.service.SearchIndexService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Index only, so no database: outside a transaction the index applies writes immediately
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchIndexBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Jane", "John", "Maria", "Ahmed", "Wei", "Olga", "Carlos", "Aiko"};
+
+    @Param({"100000", "1000000"})
+    public int students;
+
+    private SearchIndexService index;
+
+    @Setup
+    public void setUp() {
+        index = new SearchIndexService(null, null, null, null, null);
+        for (int i = 1; i <= students; i++) {
+            Student student = new Student();
+            student.setStudentId(i);
+            student.setFirstName(FIRST_NAMES[i % FIRST_NAMES.length]);
+            student.setLastName("Last" + i);
+            student.setEmail("student" + i + "@example.com");
+            index.index(student);
+        }
+    }
+
+    @Benchmark
+    public List<SearchHit> shortPrefix() {
+        return index.search("ja", null, 20);
+    }
+
+    @Benchmark
+    public List<SearchHit> selectivePrefix() {
+        return index.search("last12345", "student", 20);
+    }
+
+    @Benchmark
+    public List<SearchHit> twoWords() {
+        return index.search("maria last99", null, 20);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.studentmanagement.benchmark;
+
+import com.example.studentmanagement.StudentmanagementApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Boots the application against a private in-memory H2 database and seeds it with
+ * the requested number of enrollments. Every student takes {@link #COURSES_PER_STUDENT}
+ * courses out of a fixed catalog, so roster sizes grow with the data set.
+ */
+@State(Scope.Benchmark)
+public class SeededDatabase {
+
+    public static final int COURSES = 200;
+
+    public static final int COURSES_PER_STUDENT = 10;
+
+    private static final int INSERT_BATCH = 10_000;
+
+    @Param({"1000", "100000", "1000000"})
+    public int enrollments;
+
+    public int students;
+
+    private ConfigurableApplicationContext context;
+
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(StudentmanagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + enrollments + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+        students = enrollments / COURSES_PER_STUDENT;
+        seed(context.getBean(JdbcTemplate.class), enrollments);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    // Walks ids round-robin so consecutive invocations don't hit the same rows
+    public int nextStudentId() {
+        return (int) (sequence++ % students) + 1;
+    }
+
+    public int nextCourseId() {
+        return (int) (sequence++ % COURSES) + 1;
+    }
+
+    public static void seed(JdbcTemplate jdbcTemplate, int enrollments) {
+        int students = enrollments / COURSES_PER_STUDENT;
+        List<Object[]> rows = new ArrayList<>(COURSES);
+        for (int c = 1; c <= COURSES; c++) {
+            rows.add(new Object[]{c, "Course " + c, "BC" + c, 1 + c % 5});
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into courses (course_id, course_name, course_code, credits) values (?, ?, ?, ?)", rows);
+
+        rows = new ArrayList<>(INSERT_BATCH);
+        for (int s = 1; s <= students; s++) {
+            rows.add(new Object[]{s, "First" + s, "Last" + s, "student" + s + "@example.com",
+                    Date.valueOf(LocalDate.of(2020, 1, 1).plusDays(s % 1500))});
+            if (rows.size() == INSERT_BATCH) {
+                insertStudents(jdbcTemplate, rows);
+                rows.clear();
+            }
+        }
+        insertStudents(jdbcTemplate, rows);
+
+        rows = new ArrayList<>(INSERT_BATCH);
+        String[] grades = {"A", "B", "C", "D", "F"};
+        for (int s = 1; s <= students; s++) {
+            for (int k = 0; k < COURSES_PER_STUDENT; k++) {
+                int courseId = (s * 7 + k) % COURSES + 1;
+                rows.add(new Object[]{s, courseId, Date.valueOf(LocalDate.of(2020, 1, 1).plusDays((s + k) % 1500)),
+                        grades[(s + k) % grades.length]});
+            }
+            if (rows.size() >= INSERT_BATCH) {
+                insertEnrollments(jdbcTemplate, rows);
+                rows.clear();
+            }
+        }
+        insertEnrollments(jdbcTemplate, rows);
+    }
+
+    private static void insertStudents(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into students (student_id, first_name, last_name, email, enrollment_date) "
+                + "values (?, ?, ?, ?, ?)", rows);
+    }
+
+    private static void insertEnrollments(JdbcTemplate jdbcTemplate, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into enrollments (student_id, course_id, enrollment_date, grade) "
+                + "values (?, ?, ?, ?)", rows);
+    }
+}
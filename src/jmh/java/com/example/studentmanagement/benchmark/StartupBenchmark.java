@@ -0,0 +1,123 @@
+package com.example.studentmanagement.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts the packaged application repeatedly in a fresh JVM and measures the time from process
+ * launch to the first successful request, and the resident set size at that point. Runs the
+ * default configuration first (it also applies the migrations to the benchmark database), then
+ * the fast-startup profile from the extracted jar with the CDS archive.
+ *
+ * <p>Arguments: {@code bootJar extractedJar cdsArchive aotEnabled runs}. RSS is read from
+ * {@code /proc} and reported as n/a on other platforms.
+ */
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    public static void main(String[] args) throws Exception {
+        File bootJar = new File(args[0]);
+        File extractedJar = new File(args[1]);
+        File cdsArchive = new File(args[2]);
+        boolean aot = Boolean.parseBoolean(args[3]);
+        int runs = Integer.parseInt(args[4]);
+
+        Path database = Files.createTempDirectory("startup-benchmark").resolve("studentdb");
+        String datasource = "--spring.datasource.url=jdbc:h2:file:" + database.toAbsolutePath();
+
+        List<String> fast = new ArrayList<>(List.of("-XX:SharedArchiveFile=" + cdsArchive.getAbsolutePath()));
+        if (aot) {
+            fast.add("-Dspring.aot.enabled=true");
+        }
+        fast.addAll(List.of("-jar", extractedJar.getAbsolutePath(), "--spring.profiles.active=fast-startup", datasource));
+
+        List<String> report = new ArrayList<>();
+        report.add(measure("default", List.of("-jar", bootJar.getAbsolutePath(), datasource), runs));
+        report.add(measure(aot ? "fast+aot" : "fast", fast, runs));
+
+        System.out.printf("%n%-10s %18s %18s %12s%n", "mode", "first request ms", "(min .. max)", "RSS MB");
+        report.forEach(System.out::println);
+    }
+
+    private static String measure(String mode, List<String> arguments, int runs) throws Exception {
+        long[] millis = new long[runs];
+        long[] rssKb = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long[] sample = startOnce(arguments);
+            millis[i] = sample[0];
+            rssKb[i] = sample[1];
+        }
+        Arrays.sort(millis);
+        Arrays.sort(rssKb);
+        String rss = rssKb[runs / 2] < 0 ? "n/a" : String.format("%.1f", rssKb[runs / 2] / 1024.0);
+        return String.format("%-10s %18d %18s %12s", mode, millis[runs / 2],
+                "(" + millis[0] + " .. " + millis[runs - 1] + ")", rss);
+    }
+
+    // One launch: {milliseconds to the first 200, RSS in KB or -1}
+    private static long[] startOnce(List<String> arguments) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(arguments);
+        command.add("--server.port=" + port);
+        command.add("--logging.level.root=WARN");
+
+        long started = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build()) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/courses")).GET().build();
+            long deadline = started + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        long elapsed = (System.nanoTime() - started) / 1_000_000;
+                        return new long[] {elapsed, residentKb(process.pid())};
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No successful request within " + STARTUP_TIMEOUT + ": " + command);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static long residentKb(long pid) {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux
+        }
+        return -1;
+    }
+}
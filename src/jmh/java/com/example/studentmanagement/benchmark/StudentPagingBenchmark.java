@@ -0,0 +1,44 @@
+package com.example.studentmanagement.benchmark;
+
+import com.example.studentmanagement.controller.StudentController;
+import com.example.studentmanagement.entity.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+// OFFSET paging: the deep page has to skip almost every student before returning
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentPagingBenchmark {
+
+    private static final int PAGE_SIZE = 10;
+
+    private StudentController studentController;
+
+    private int lastPage;
+
+    @Setup
+    public void setUp(SeededDatabase database) {
+        studentController = database.bean(StudentController.class);
+        lastPage = Math.max(0, database.students / PAGE_SIZE - 1);
+    }
+
+    @Benchmark
+    public ResponseEntity<Page<Student>> shallowPage() {
+        return studentController.getAllStudents(0, PAGE_SIZE, "studentId", "asc");
+    }
+
+    @Benchmark
+    public ResponseEntity<Page<Student>> deepPage() {
+        return studentController.getAllStudents(lastPage, PAGE_SIZE, "studentId", "asc");
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.benchmark.SeededDatabase;
+import com.example.studentmanagement.entity.Enrollment;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Lives in the controller package to reach the package-private convertToDTO
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnrollmentMappingBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private EnrollmentController enrollmentController;
+
+    private List<Enrollment> enrollments;
+
+    @Setup
+    public void setUp(SeededDatabase database) {
+        enrollmentController = database.bean(EnrollmentController.class);
+        EntityManager entityManager = database.bean(EntityManager.class);
+        // Associations are fetched up front so the benchmark measures mapping, not lazy loading
+        enrollments = database.bean(TransactionTemplate.class).execute(status -> entityManager
+                .createQuery("select e from Enrollment e join fetch e.student join fetch e.course", Enrollment.class)
+                .setMaxResults(ROWS)
+                .getResultList());
+    }
+
+    @Benchmark
+    public void convertToDTO(Blackhole blackhole) {
+        for (Enrollment enrollment : enrollments) {
+            blackhole.consume(enrollmentController.convertToDTO(enrollment));
+        }
+    }
+}
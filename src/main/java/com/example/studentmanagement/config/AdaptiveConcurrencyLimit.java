@@ -0,0 +1,88 @@
+package com.example.studentmanagement.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one class of endpoints that adapts to observed latency: additive
+ * increase while responses stay under the latency target and the limit is actually in use,
+ * multiplicative decrease when they are slow or fail (a pool timeout is the clearest overload
+ * signal there is). A slowing database therefore lowers how many
+ * requests of the class are let in before the connection pool queue builds up.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long latencyTargetNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Fractional so that growth is about one per limit's worth of fast responses
+    private double limit;
+
+    private volatile int admitted;
+
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyTargetNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = latencyTargetNanos;
+        this.limit = initialLimit;
+        this.admitted = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= admitted) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Releases the slot taken by tryAcquire
+    public void release(long latencyNanos, boolean succeeded) {
+        int wasInFlight = inFlight.getAndDecrement();
+        sample(latencyNanos, succeeded, wasInFlight);
+    }
+
+    // Records the latency of a request that keeps its slot, such as a response that is still streaming
+    public void record(long latencyNanos, boolean succeeded) {
+        sample(latencyNanos, succeeded, inFlight.get());
+    }
+
+    // Releases a slot whose latency was already recorded
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return admitted;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void sample(long latencyNanos, boolean succeeded, int wasInFlight) {
+        long now = System.nanoTime();
+        if (!succeeded || latencyNanos > latencyTargetNanos) {
+            // Everything in flight is probably slow for the same reason; back off once per target interval
+            if (now - lastDecrease > latencyTargetNanos) {
+                limit = Math.max(minLimit, limit * BACKOFF);
+                lastDecrease = now;
+            }
+        } else if (wasInFlight * 2 >= admitted) {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        admitted = (int) limit;
+    }
+}
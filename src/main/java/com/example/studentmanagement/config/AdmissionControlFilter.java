@@ -0,0 +1,260 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control for the API. A request first takes tokens from its client's bucket
+ * (rejected with 429 and {@code Retry-After} when empty), then a slot under the adaptive
+ * concurrency limit of its endpoint class (rejected with 503 when full, and the tokens are
+ * given back). A client is its API key when the key is one of {@code api-keys}, otherwise its
+ * remote address.
+ *
+ * <p>Lookups, listings, streams and writes have separate limits. Clients looping over listings use
+ * up the listing slots and their own buckets, not the connections that registrations need, and a
+ * long export holds a stream slot, not a listing one. Rejections are immediate; nothing queues in
+ * the filter.
+ *
+ * <p>The latency that adapts a limit is the time until the handler returns. For an asynchronous
+ * response that is when its body starts; how long the body then takes, or a client that stops
+ * reading it, says nothing about overload, so it only keeps the slot taken until it completes.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    enum EndpointClass { LOOKUP, LISTING, STREAM, WRITE }
+
+    private final AdmissionControlProperties properties;
+
+    private final TokenBucketRateLimiter rateLimiter;
+
+    private final Map<EndpointClass, AdaptiveConcurrencyLimit> limits = new EnumMap<>(EndpointClass.class);
+
+    private final Map<EndpointClass, Integer> costs = new EnumMap<>(EndpointClass.class);
+
+    private final List<PathPattern> lookupPatterns;
+
+    private final List<PathPattern> streamPatterns;
+
+    private final List<PathPattern> readPatterns;
+
+    private final List<PathPattern> excludedPatterns;
+
+    private final Counter rateLimited;
+
+    private final Map<EndpointClass, Counter> overLimit = new EnumMap<>(EndpointClass.class);
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.rateLimiter = new TokenBucketRateLimiter(properties.getRatePerSecond(), properties.getBurst());
+        this.lookupPatterns = parse(properties.getLookupPatterns());
+        this.streamPatterns = parse(properties.getStreamPatterns());
+        this.readPatterns = parse(properties.getReadPatterns());
+        this.excludedPatterns = parse(properties.getExcludedPatterns());
+        this.rateLimited = Counter.builder("http.server.admission.rejected")
+                .description("Requests rejected by admission control")
+                .tag("reason", "rate-limit")
+                .register(registry);
+        register(EndpointClass.LOOKUP, properties.getLookups(), registry);
+        register(EndpointClass.LISTING, properties.getListings(), registry);
+        register(EndpointClass.STREAM, properties.getStreams(), registry);
+        register(EndpointClass.WRITE, properties.getWrites(), registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !path(request).startsWith("/api/") || matches(excludedPatterns, request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        String client = client(request);
+        int cost = costs.get(endpointClass);
+
+        long waitNanos = rateLimiter.tryAcquire(client, cost);
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos);
+            return;
+        }
+
+        AdaptiveConcurrencyLimit limit = limits.get(endpointClass);
+        if (!limit.tryAcquire()) {
+            // The request was never served, so it shouldn't count against the client's rate
+            rateLimiter.refund(client, cost);
+            overLimit.get(endpointClass).increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+
+        long start = System.nanoTime();
+        Release release = new Release(limit, response, start);
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            release.failed();
+            throw e;
+        } finally {
+            // Streaming responses are sampled now but hold their slot until the body is written
+            if (request.isAsyncStarted()) {
+                release.started();
+                request.getAsyncContext().addListener(release);
+            } else {
+                release.done();
+            }
+        }
+    }
+
+    EndpointClass classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)) {
+            if (matches(lookupPatterns, request)) {
+                return EndpointClass.LOOKUP;
+            }
+            return matches(streamPatterns, request) ? EndpointClass.STREAM : EndpointClass.LISTING;
+        }
+        return matches(readPatterns, request) ? EndpointClass.LISTING : EndpointClass.WRITE;
+    }
+
+    // Only issued keys name a client; anything else would let a caller mint a fresh bucket per request
+    private String client(HttpServletRequest request) {
+        String key = request.getHeader(properties.getClientHeader());
+        return key != null && properties.getApiKeys().contains(key) ? "key:" + key : "ip:" + request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long waitNanos) throws IOException {
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+        response.sendError(status.value());
+    }
+
+    private void register(EndpointClass endpointClass, AdmissionControlProperties.EndpointClass config,
+                          MeterRegistry registry) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(config.getInitialLimit(), config.getMinLimit(),
+                config.getMaxLimit(), config.getLatencyTarget().toNanos());
+        limits.put(endpointClass, limit);
+        costs.put(endpointClass, config.getCost());
+        String tag = endpointClass.name().toLowerCase(Locale.ROOT);
+        Gauge.builder("http.server.admission.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current concurrency limit")
+                .tag("class", tag)
+                .register(registry);
+        Gauge.builder("http.server.admission.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently admitted")
+                .tag("class", tag)
+                .register(registry);
+        overLimit.put(endpointClass, Counter.builder("http.server.admission.rejected")
+                .description("Requests rejected by admission control")
+                .tag("reason", "concurrency-limit")
+                .tag("class", tag)
+                .register(registry));
+    }
+
+    private static boolean matches(List<PathPattern> patterns, HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(path(request));
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static List<PathPattern> parse(List<String> patterns) {
+        return patterns.stream().map(PathPatternParser.defaultInstance::parse).toList();
+    }
+
+    // Gives the slot back exactly once, when the response is complete. A started stream has
+    // already recorded its latency and only gives the slot back.
+    private static final class Release implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimit limit;
+
+        private final HttpServletResponse response;
+
+        private final long start;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private volatile boolean sampled;
+
+        private Release(AdaptiveConcurrencyLimit limit, HttpServletResponse response, long start) {
+            this.limit = limit;
+            this.response = response;
+            this.start = start;
+        }
+
+        void started() {
+            if (!released.get()) {
+                sampled = true;
+                limit.record(System.nanoTime() - start, response.getStatus() < 500);
+            }
+        }
+
+        void done() {
+            if (released.compareAndSet(false, true)) {
+                release(response.getStatus() < 500);
+            }
+        }
+
+        void failed() {
+            if (released.compareAndSet(false, true)) {
+                release(false);
+            }
+        }
+
+        private void release(boolean succeeded) {
+            if (sampled) {
+                limit.release();
+            } else {
+                limit.release(System.nanoTime() - start, succeeded);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            done();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.studentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@ConfigurationProperties("app.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    // Identifies the client for rate limiting. Only keys listed in api-keys are trusted; requests
+    // without one, or with an unknown one, are limited per remote address.
+    private String clientHeader = "X-API-Key";
+
+    private Set<String> apiKeys = new HashSet<>();
+
+    // Sustained requests per second per client, and how many may arrive at once after a pause
+    private double ratePerSecond = 50;
+
+    private int burst = 100;
+
+    // GET requests matching these are point lookups; other GETs are listings
+    private List<String> lookupPatterns = new ArrayList<>(List.of(
+            "/api/students/{id}",
+            "/api/students/{id}/course-count",
+            "/api/students/{id}/transcript",
+            "/api/courses/{id}",
+            "/api/courses/{id}/enrollment-count",
+            "/api/enrollments/student/{studentId}/course/{courseId}",
+            "/api/enrollments/commands/{commandId}",
+            "/api/search"));
+
+    // GET requests matching these stream their body after the handler returns, such as exports
+    private List<String> streamPatterns = new ArrayList<>(List.of(
+            "/api/enrollments/export"));
+
+    // POST requests that only read, admitted as listings rather than writes
+    private List<String> readPatterns = new ArrayList<>(List.of(
+            "/api/students/transcripts"));
+
+    // Long-lived or operational endpoints that are never limited
+    private List<String> excludedPatterns = new ArrayList<>(List.of(
+            "/api/changes/stream"));
+
+    private EndpointClass lookups = new EndpointClass(200, 20, 400, Duration.ofMillis(50), 1);
+
+    private EndpointClass listings = new EndpointClass(20, 2, 60, Duration.ofMillis(500), 5);
+
+    private EndpointClass writes = new EndpointClass(40, 5, 100, Duration.ofMillis(200), 1);
+
+    // The latency of a stream is its time to first byte, so the target is the listings' one
+    private EndpointClass streams = new EndpointClass(4, 1, 10, Duration.ofMillis(500), 5);
+
+    @Data
+    public static class EndpointClass {
+
+        // Concurrent requests admitted at startup; the limit then follows the observed latency
+        private int initialLimit;
+
+        private int minLimit;
+
+        private int maxLimit;
+
+        // Responses slower than this shrink the limit, faster ones let it grow. A streamed
+        // response counts until the handler returns, not until its body is written.
+        private Duration latencyTarget;
+
+        // Tokens taken from the client's bucket per request
+        private int cost;
+
+        public EndpointClass() {
+        }
+
+        public EndpointClass(int initialLimit, int minLimit, int maxLimit, Duration latencyTarget, int cost) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.latencyTarget = latencyTarget;
+            this.cost = cost;
+        }
+    }
+}
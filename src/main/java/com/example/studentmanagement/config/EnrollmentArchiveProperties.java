@@ -0,0 +1,23 @@
+package com.example.studentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Period;
+
+@Data
+@ConfigurationProperties("app.archive")
+public class EnrollmentArchiveProperties {
+
+    // Only turns the scheduled job on; archived enrollments are read back either way
+    private boolean enabled = false;
+
+    // Graded enrollments dated more than this before today are archived
+    private Period retainFor = Period.ofYears(2);
+
+    // Spring cron expression, in the server's time zone
+    private String schedule = "0 30 2 * * *";
+
+    // Students per archiving transaction; a failed run resumes from the first unfinished chunk
+    private int chunkSize = 200;
+}
@@ -0,0 +1,30 @@
+package com.example.studentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("app.enrollment-commands")
+public class EnrollmentCommandProperties {
+
+    // Commands waiting for a writer; when full, new commands are refused with 503
+    private int queueCapacity = 10_000;
+
+    // Writer threads, and so the most connections the pipeline ever holds at once
+    private int writers = 2;
+
+    // Commands written per transaction
+    private int batchSize = 200;
+
+    // Attempts per command before it is marked failed
+    private int maxAttempts = 3;
+
+    // How long a finished command's status can still be looked up
+    private Duration statusRetention = Duration.ofHours(1);
+
+    // Most statuses kept, finished or not. Keep it well above queue-capacity, or statuses of
+    // queued commands may be evicted and only reappear once the command is written.
+    private long maxStatuses = 100_000;
+}
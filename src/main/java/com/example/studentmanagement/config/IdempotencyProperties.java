@@ -0,0 +1,20 @@
+package com.example.studentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("app.idempotency")
+public class IdempotencyProperties {
+
+    // Most recent keys kept; older ones are evicted first
+    private int maxEntries = 100_000;
+
+    // How long a response can be replayed for its key
+    private Duration retention = Duration.ofHours(24);
+
+    // How long a retry waits for the original request with the same key to finish
+    private Duration waitTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,34 @@
+package com.example.studentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("app.outbox")
+public class OutboxProperties {
+
+    // Off in tests that count statements, so the relay's polling doesn't show up
+    private boolean relayEnabled = true;
+
+    // Exactly one instance numbers events; the others only read what it published
+    private boolean assignOffsets = true;
+
+    // Longest a committed event waits for the relay when no wake-up reaches it
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    // Events published per relay transaction
+    private int batchSize = 500;
+
+    // Recent events kept in memory; older offsets are read from the table
+    private int bufferSize = 10_000;
+
+    // Published events older than this are deleted
+    private Duration retention = Duration.ofDays(7);
+
+    // Clients reconnect with Last-Event-ID when a stream times out
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+}
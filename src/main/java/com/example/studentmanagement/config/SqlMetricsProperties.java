@@ -0,0 +1,15 @@
+package com.example.studentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties("app.sql-metrics")
+public class SqlMetricsProperties {
+
+    // Wraps the DataSource in a counting proxy; off means no per-statement overhead at all
+    private boolean enabled = true;
+
+    // A request issuing more statements than this is logged as a likely N+1
+    private int statementAlertThreshold = 20;
+}
@@ -0,0 +1,71 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how many statements each request ran and how long they took, tagged like
+ * {@code http.server.requests} so the two can be lined up per endpoint. Requests above the
+ * configured threshold are logged.
+ *
+ * <p>Work handed off to another thread (such as the NDJSON export) isn't attributed to the request.
+ */
+@Slf4j
+public class SqlStatementCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+
+    private final int alertThreshold;
+
+    public SqlStatementCountFilter(MeterRegistry registry, int alertThreshold) {
+        this.registry = registry;
+        this.alertThreshold = alertThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.Tally tally = SqlStatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementCounter.stop();
+            record(request, tally);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Tally tally) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("SQL statements executed per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(tally.statements);
+        Timer.builder("http.server.requests.sql.time")
+                .description("Time spent in SQL per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(tally.elapsedMillis, TimeUnit.MILLISECONDS);
+
+        if (tally.statements > alertThreshold) {
+            log.warn("{} {} executed {} SQL statements ({} ms), above the threshold of {}",
+                    request.getMethod(), request.getRequestURI(), tally.statements, tally.elapsedMillis, alertThreshold);
+        }
+    }
+}
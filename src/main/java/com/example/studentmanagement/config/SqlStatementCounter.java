@@ -0,0 +1,68 @@
+package com.example.studentmanagement.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives every statement executed through the proxied DataSource. Each execution is timed
+ * globally, and also added to the tally of the request running on the current thread, if any.
+ * A JDBC batch counts as one statement, matching one round trip.
+ */
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+
+    private final Timer statements;
+
+    private final Timer batches;
+
+    public SqlStatementCounter(MeterRegistry registry) {
+        this.statements = Timer.builder("jdbc.statements")
+                .description("SQL statements executed through the application DataSource")
+                .tag("batch", "false")
+                .register(registry);
+        this.batches = Timer.builder("jdbc.statements")
+                .description("SQL statements executed through the application DataSource")
+                .tag("batch", "true")
+                .register(registry);
+    }
+
+    static Tally start() {
+        Tally tally = new Tally();
+        CURRENT.set(tally);
+        return tally;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        (execInfo.isBatch() ? batches : statements).record(elapsedMillis, TimeUnit.MILLISECONDS);
+        Tally tally = CURRENT.get();
+        if (tally != null) {
+            tally.statements++;
+            tally.elapsedMillis += elapsedMillis;
+        }
+    }
+
+    // Only touched by the thread that owns it
+    static final class Tally {
+
+        int statements;
+
+        long elapsedMillis;
+    }
+}
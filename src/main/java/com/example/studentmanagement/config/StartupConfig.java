@@ -0,0 +1,25 @@
+package com.example.studentmanagement.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+
+/**
+ * Beans that stay eager when {@code spring.main.lazy-initialization} is on (the fast-startup
+ * profile). The DataSource and EntityManagerFactory are what the first request would otherwise
+ * pay for, and controllers are cheap. Everything else is created on first use.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter eagerRequestPathBeans() {
+        return (beanName, beanDefinition, beanType) -> DataSource.class.isAssignableFrom(beanType)
+                || AbstractEntityManagerFactoryBean.class.isAssignableFrom(beanType)
+                || beanType.isAnnotationPresent(RestController.class);
+    }
+}
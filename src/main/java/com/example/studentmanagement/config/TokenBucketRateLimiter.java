@@ -0,0 +1,71 @@
+package com.example.studentmanagement.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets. Each bucket is a single {@link AtomicLong} holding the time at which
+ * it will be full again (the generic cell rate algorithm), so taking tokens is one CAS with no
+ * lock and no refill thread. Idle clients are dropped from the bounded map.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long nanosPerToken;
+
+    // How far the bucket's full-again time may run ahead of now, i.e. the burst
+    private final long burstNanos;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    private final LongSupplier clock;
+
+    public TokenBucketRateLimiter(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucketRateLimiter(double ratePerSecond, int burst, LongSupplier clock) {
+        this.nanosPerToken = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstNanos = nanosPerToken * burst;
+        this.clock = clock;
+        // A bucket idle for longer than it takes to refill is full, so forgetting it changes nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterAccess(Duration.ofNanos(Math.max(burstNanos, TimeUnit.SECONDS.toNanos(1))))
+                .build();
+    }
+
+    /**
+     * Takes {@code tokens} from the client's bucket. Returns 0 if they were available, otherwise
+     * how many nanoseconds to wait before they will be; nothing is taken in that case.
+     */
+    public long tryAcquire(String client, int tokens) {
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(Long.MIN_VALUE));
+        long cost = nanosPerToken * tokens;
+        while (true) {
+            long now = clock.getAsLong();
+            long current = fullAt.get();
+            long start = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+            long next = start + cost;
+            if (next - now > burstNanos) {
+                return next - now - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Gives back tokens taken by a successful tryAcquire whose request was then turned away
+    public void refund(String client, int tokens) {
+        AtomicLong fullAt = buckets.getIfPresent(client);
+        if (fullAt != null) {
+            long cost = nanosPerToken * tokens;
+            fullAt.updateAndGet(current -> current == Long.MIN_VALUE ? current : current - cost);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.studentmanagement.config;
+
+import com.example.studentmanagement.controller.SparseFieldsetAdvice;
+import com.fasterxml.jackson.databind.introspect.AnnotationIntrospectorPair;
+import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Adds binary CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile})
+ * encodings next to JSON. Both are built from Boot's Jackson settings, so dates and other
+ * customizations serialize the same way as in JSON.
+ *
+ * <p>Every bean carries the {@link SparseFieldsetAdvice} filter, which writes all properties
+ * unless a request asks for {@code fields=}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    // Prototype bean: every getObject() is a fresh builder carrying Boot's customizations
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+    @Bean
+    Jackson2ObjectMapperBuilderCustomizer sparseFieldsetFilter() {
+        // Applies to the JSON mapper and, through the shared builder, to the binary ones below. The
+        // builder starts without an introspector, and the one set here replaces Jackson's default.
+        return builder -> builder
+                .annotationIntrospector(introspector -> AnnotationIntrospectorPair.pair(
+                        introspector != null ? introspector : new JacksonAnnotationIntrospector(),
+                        SparseFieldsetAdvice.INTROSPECTOR))
+                .filters(SparseFieldsetAdvice.SERIALIZE_ALL);
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Appended after JSON, so only clients that ask for a binary type get one
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+    }
+}
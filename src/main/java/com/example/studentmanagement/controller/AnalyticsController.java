@@ -0,0 +1,96 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.CourseGradeCount;
+import com.example.studentmanagement.dto.GradeCount;
+import com.example.studentmanagement.dto.PeriodCount;
+import com.example.studentmanagement.dto.SummaryRebuildResult;
+import com.example.studentmanagement.dto.TermCount;
+import com.example.studentmanagement.repository.EnrollmentSummaryRepository;
+import com.example.studentmanagement.service.EnrollmentSummaryService;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DateTimeException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Dashboard queries read the pre-aggregated enrollment_summaries table, never the enrollments
+@RestController
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+@RequestMapping("/api/analytics")
+public class AnalyticsController {
+    
+    private final EnrollmentSummaryRepository summaryRepository;
+    
+    private final EnrollmentSummaryService summaryService;
+    
+    private static final Pattern TERM_PATTERN = Pattern.compile("(\\d{4})-(spring|fall)");
+    
+    @GetMapping("/grades")
+    public List<CourseGradeCount> getGradeDistributions() {
+        return summaryRepository.findGradeDistributions();
+    }
+    
+    // Optionally for one term, e.g. term=2024-fall
+    @GetMapping("/courses/{courseId}/grades")
+    public List<GradeCount> getGradeDistribution(
+            @PathVariable Integer courseId,
+            @RequestParam(required = false) String term) {
+        if (term == null) {
+            return summaryRepository.findGradeDistribution(courseId);
+        }
+        YearMonth first = termStart(term);
+        return summaryRepository.findGradeDistributionBetween(courseId, first.toString(), first.plusMonths(5).toString());
+    }
+    
+    @GetMapping("/terms")
+    public List<TermCount> getTermTotals() {
+        return summaryRepository.findTermTotals();
+    }
+    
+    @GetMapping("/courses/{courseId}/terms")
+    public List<TermCount> getTermCounts(@PathVariable Integer courseId) {
+        return summaryRepository.findTermCounts(courseId);
+    }
+    
+    // Monthly counts; from and to are inclusive yyyy-MM bounds
+    @GetMapping("/courses/{courseId}/enrollment-trend")
+    public List<PeriodCount> getEnrollmentTrend(
+            @PathVariable Integer courseId,
+            @RequestParam(defaultValue = "0001-01") String from,
+            @RequestParam(defaultValue = "9999-12") String to) {
+        return summaryRepository.findEnrollmentTrend(courseId, parsePeriod(from), parsePeriod(to));
+    }
+    
+    @PostMapping("/rebuild")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SummaryRebuildResult rebuildSummaries() {
+        return summaryService.rebuild();
+    }
+    
+    // Same terms as EnrollmentSummaryRepository.TERM
+    private static YearMonth termStart(String term) {
+        Matcher matcher = TERM_PATTERN.matcher(term);
+        if (!matcher.matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Terms must be formatted as yyyy-spring or yyyy-fall");
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), matcher.group(2).equals("spring") ? 1 : 7);
+    }
+    
+    private static String parsePeriod(String period) {
+        try {
+            return YearMonth.parse(period).toString();
+        } catch (DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Periods must be formatted as yyyy-MM");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.CacheRegionStats;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/cache")
+public class CacheStatisticsController {
+    
+    private final EntityManagerFactory entityManagerFactory;
+    
+    // Per-region second-level and query cache counters, for sizing regions against real traffic
+    @GetMapping("/stats")
+    public List<CacheRegionStats> getCacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        return Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .map(region -> toStats(region, statistics.getCacheRegionStatistics(region)))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+    
+    private CacheRegionStats toStats(String region, CacheRegionStatistics regionStatistics) {
+        if (regionStatistics == null) {
+            return null;
+        }
+        long hits = regionStatistics.getHitCount();
+        long lookups = hits + regionStatistics.getMissCount();
+        return new CacheRegionStats(
+                region,
+                hits,
+                regionStatistics.getMissCount(),
+                regionStatistics.getPutCount(),
+                regionStatistics.getElementCountInMemory(),
+                lookups == 0 ? 0.0 : (double) hits / lookups);
+    }
+}
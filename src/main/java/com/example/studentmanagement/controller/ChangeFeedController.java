@@ -0,0 +1,42 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.ChangeEvent;
+import com.example.studentmanagement.dto.ChangeFeedPage;
+import com.example.studentmanagement.service.OutboxRelay;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+// Incremental replacement for polling the listings: consumers keep the last offset they
+// processed and ask only for what came after it
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/changes")
+public class ChangeFeedController {
+    
+    private static final int MAX_LIMIT = 1000;
+    
+    private final OutboxRelay outboxRelay;
+    
+    @GetMapping
+    public ChangeFeedPage getChanges(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<ChangeEvent> events = outboxRelay.read(after, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        long nextOffset = events.isEmpty() ? after : events.get(events.size() - 1).getOffset();
+        return new ChangeFeedPage(events, nextOffset);
+    }
+    
+    // Server-Sent Events; a reconnecting EventSource resumes through Last-Event-ID
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(defaultValue = "0") long after) {
+        return outboxRelay.subscribe(lastEventId != null ? lastEventId : after);
+    }
+}
@@ -1,10 +1,17 @@
 package com.example.studentmanagement.controller;
 
+import com.example.studentmanagement.dto.BulkDeleteResult;
+import com.example.studentmanagement.dto.CourseEnrollmentCount;
 import com.example.studentmanagement.entity.Course;
 import com.example.studentmanagement.repository.CourseRepository;
+import com.example.studentmanagement.repository.CourseSeatRepository;
+import com.example.studentmanagement.service.CascadeDeleteService;
+import com.example.studentmanagement.service.OutboxService;
+import com.example.studentmanagement.service.SearchIndexService;
 
 import lombok.RequiredArgsConstructor;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
@@ -14,12 +21,20 @@ import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
-@Transactional
+@Transactional(readOnly = true)
 @RequestMapping("/api/courses")
 public class CourseController {
     
     private final CourseRepository courseRepository;
     
+    private final CourseSeatRepository courseSeatRepository;
+    
+    private final CascadeDeleteService cascadeDeleteService;
+    
+    private final SearchIndexService searchIndexService;
+    
+    private final OutboxService outboxService;
+    
     @GetMapping
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
@@ -27,38 +42,75 @@ public class CourseController {
     
     @GetMapping("/{id}")
     public ResponseEntity<Course> getCourseById(@PathVariable Integer id) {
+        // A matching If-None-Match turns this into a 304 before the body is serialized
         return courseRepository.findById(id)
+                .map(course -> ResponseEntity.ok().eTag(ETags.of(course.getVersion())).body(course))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/{id}/enrollment-count")
+    public ResponseEntity<CourseEnrollmentCount> getEnrollmentCount(@PathVariable Integer id) {
+        return courseSeatRepository.findEnrollmentCount(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @PostMapping
+    @Transactional
     public ResponseEntity<Course> createCourse(@RequestBody Course course) {
         Course savedCourse = courseRepository.save(course);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedCourse);
+        courseSeatRepository.insertForCourses(List.of(savedCourse.getCourseId()));
+        searchIndexService.index(savedCourse);
+        outboxService.course(OutboxService.CREATED, savedCourse);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedCourse.getVersion())).body(savedCourse);
+    }
+    
+    @PostMapping("/bulk")
+    @Transactional
+    public ResponseEntity<List<Course>> createCourses(@RequestBody List<Course> courses) {
+        List<Course> saved = courseRepository.saveAll(courses);
+        courseSeatRepository.insertForCourses(saved.stream().map(Course::getCourseId).toList());
+        saved.forEach(searchIndexService::index);
+        saved.forEach(course -> outboxService.course(OutboxService.CREATED, course));
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<Course> updateCourse(@PathVariable Integer id, @RequestBody Course course) {
+    @Transactional
+    public ResponseEntity<Course> updateCourse(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Course course) {
         return courseRepository.findById(id)
                 .map(existingCourse -> {
+                    if (!ETags.matches(ifMatch, existingCourse.getVersion())) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Course>build();
+                    }
                     existingCourse.setCourseName(course.getCourseName());
                     existingCourse.setCourseCode(course.getCourseCode());
                     existingCourse.setCredits(course.getCredits());
-                    return ResponseEntity.ok(courseRepository.save(existingCourse));
+                    existingCourse.setCapacity(course.getCapacity());
+                    // Flush so the response carries the incremented version
+                    Course updated = courseRepository.saveAndFlush(existingCourse);
+                    searchIndexService.index(updated);
+                    outboxService.course(OutboxService.UPDATED, updated);
+                    return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteCourse(@PathVariable Integer id) {
-        return courseRepository.findById(id)
-                .map(course -> {
-                    // Clear the enrollments collection before deleting
-                    course.getEnrollments().clear();
-                    courseRepository.delete(course);
-                    return ResponseEntity.noContent().<Void>build();
-                })
-                .orElse(ResponseEntity.notFound().build());
+        if (cascadeDeleteService.deleteCourses(List.of(id)).getDeleted() == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/bulk-delete")
+    @Transactional
+    public ResponseEntity<BulkDeleteResult> deleteCourses(@RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(cascadeDeleteService.deleteCourses(ids));
     }
-}
\ No newline at end of file
+}
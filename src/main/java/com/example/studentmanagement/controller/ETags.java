@@ -0,0 +1,31 @@
+package com.example.studentmanagement.controller;
+
+/**
+ * Strong ETags derived from an entity's {@code @Version}. The version changes on every
+ * committed update, so comparing it is enough to decide 304 and 412 responses without
+ * serializing or hashing the body.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    // An absent If-Match header means the client didn't ask for a conditional update
+    static boolean matches(String ifMatch, Long version) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return true;
+        }
+        String current = of(version);
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
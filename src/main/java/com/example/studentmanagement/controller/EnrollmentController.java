@@ -1,28 +1,62 @@
 package com.example.studentmanagement.controller;
 
+import com.example.studentmanagement.dto.ArchiveRunResult;
+import com.example.studentmanagement.dto.BulkEnrollmentResult;
+import com.example.studentmanagement.dto.EnrollmentCommandStatus;
+import com.example.studentmanagement.dto.EnrollmentCursor;
 import com.example.studentmanagement.dto.EnrollmentDTO;
+import com.example.studentmanagement.dto.EnrollmentPage;
 import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.example.studentmanagement.dto.NormalizedEnrollments;
 import com.example.studentmanagement.entity.Enrollment;
 import com.example.studentmanagement.entity.EnrollmentId;
 import com.example.studentmanagement.entity.Student;
 import com.example.studentmanagement.entity.Course;
 import com.example.studentmanagement.repository.EnrollmentRepository;
 import com.example.studentmanagement.repository.StudentRepository;
+import com.example.studentmanagement.service.EnrollmentArchiveService;
+import com.example.studentmanagement.service.EnrollmentCommandService;
+import com.example.studentmanagement.service.EnrollmentImportService;
+import com.example.studentmanagement.service.EnrollmentSummaryService;
+import com.example.studentmanagement.service.OutboxService;
 
 import lombok.RequiredArgsConstructor;
 
 import com.example.studentmanagement.repository.CourseRepository;
+import com.example.studentmanagement.repository.CourseSeatRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.sql.SQLException;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequiredArgsConstructor
-@Transactional
+@Transactional(readOnly = true)
 @RequestMapping("/api/enrollments")
 public class EnrollmentController {
     
@@ -32,7 +66,29 @@ public class EnrollmentController {
     
     private final CourseRepository courseRepository;
     
-    private EnrollmentDTO convertToDTO(Enrollment enrollment) {
+    private final CourseSeatRepository courseSeatRepository;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final ObjectMapper objectMapper;
+    
+    private final EnrollmentImportService enrollmentImportService;
+    
+    private final EnrollmentSummaryService enrollmentSummaryService;
+    
+    private final EnrollmentCommandService enrollmentCommandService;
+    
+    private final IdempotencyCache idempotencyCache;
+    
+    private final OutboxService outboxService;
+    
+    private final EnrollmentArchiveService enrollmentArchiveService;
+    
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    private static final String NORMALIZED = "shape=normalized";
+    
+    EnrollmentDTO convertToDTO(Enrollment enrollment) {
         EnrollmentDTO dto = new EnrollmentDTO();
         dto.setStudentId(enrollment.getId().getStudentId());
         dto.setCourseId(enrollment.getId().getCourseId());
@@ -41,90 +97,367 @@ public class EnrollmentController {
         dto.setCourseCode(enrollment.getCourse().getCourseCode());
         dto.setEnrollmentDate(enrollment.getEnrollmentDate());
         dto.setGrade(enrollment.getGrade());
+        dto.setVersion(enrollment.getVersion());
         return dto;
     }
     
     @GetMapping
     public List<EnrollmentDTO> getAllEnrollments() {
-        return enrollmentRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return enrollmentRepository.findAllDTOs();
+    }
+    
+    // ?shape=normalized sends each student and course once instead of on every row
+    @GetMapping(params = NORMALIZED)
+    public NormalizedEnrollments getAllEnrollmentsNormalized() {
+        return NormalizedEnrollments.of(enrollmentRepository.findAllDTOs());
+    }
+    
+    private static EnrollmentCursor decodeCursor(String cursor) {
+        try {
+            return EnrollmentCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+    
+    private static PageRequest seekLimit(int size) {
+        // One extra row tells us whether another page exists without a COUNT query
+        return PageRequest.ofSize(clampPageSize(size) + 1);
+    }
+    
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+    
+    private static EnrollmentPage toPage(List<EnrollmentDTO> rows, int size) {
+        int pageSize = clampPageSize(size);
+        if (rows.size() <= pageSize) {
+            return new EnrollmentPage(rows, null);
+        }
+        List<EnrollmentDTO> content = rows.subList(0, pageSize);
+        EnrollmentDTO last = content.get(pageSize - 1);
+        return new EnrollmentPage(content, new EnrollmentCursor(last.getStudentId(), last.getCourseId()).encode());
+    }
+    
+    @GetMapping("/page")
+    public EnrollmentPage getEnrollmentPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        EnrollmentCursor after = decodeCursor(cursor);
+        return toPage(enrollmentRepository.findDTOsAfter(after.getStudentId(), after.getCourseId(), seekLimit(size)), size);
+    }
+    
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<StreamingResponseBody> exportEnrollments() {
+        // The body is written after this method returns, on an async thread, so the stream
+        // runs in its own read-only transaction rather than the request's.
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        StreamingResponseBody body = out -> readOnly.executeWithoutResult(status -> {
+            try (Stream<EnrollmentDTO> rows = enrollmentRepository.streamAllDTOs()) {
+                rows.forEach(dto -> writeLine(out, dto));
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+    
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
     
     @GetMapping("/student/{studentId}/course/{courseId}")
     public ResponseEntity<EnrollmentDTO> getEnrollmentById(
             @PathVariable Integer studentId, 
             @PathVariable Integer courseId) {
-        EnrollmentId id = new EnrollmentId(studentId, courseId);
-        return enrollmentRepository.findById(id)
-                .map(enrollment -> ResponseEntity.ok(convertToDTO(enrollment)))
+        return enrollmentRepository.findDTOById(studentId, courseId)
+                .map(dto -> ResponseEntity.ok().eTag(ETags.of(dto.getVersion())).body(dto))
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @GetMapping("/student/{studentId}")
     public List<EnrollmentDTO> getEnrollmentsByStudent(@PathVariable Integer studentId) {
-        return enrollmentRepository.findById_StudentId(studentId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return enrollmentRepository.findDTOsByStudentId(studentId);
+    }
+    
+    @GetMapping(value = "/student/{studentId}", params = NORMALIZED)
+    public NormalizedEnrollments getEnrollmentsByStudentNormalized(@PathVariable Integer studentId) {
+        return NormalizedEnrollments.of(enrollmentRepository.findDTOsByStudentId(studentId));
+    }
+    
+    @GetMapping("/student/{studentId}/page")
+    public EnrollmentPage getEnrollmentPageByStudent(
+            @PathVariable Integer studentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        EnrollmentCursor after = decodeCursor(cursor);
+        return toPage(enrollmentRepository.findDTOsByStudentIdAfter(studentId, after.getCourseId(), seekLimit(size)), size);
+    }
+    
+    // Current and archived enrollments, oldest first; /student/{studentId} lists only the current ones
+    @GetMapping("/student/{studentId}/history")
+    public List<EnrollmentDTO> getEnrollmentHistoryByStudent(@PathVariable Integer studentId) {
+        return enrollmentArchiveService.history(studentId);
+    }
+    
+    // Runs the archival job now; without a date the cutoff comes from app.archive.retain-for,
+    // and an explicit one may only be earlier, never reaching into the retained enrollments
+    @PostMapping("/archive")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ArchiveRunResult archiveEnrollments(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate before) {
+        LocalDate defaultCutoff = enrollmentArchiveService.defaultCutoff();
+        if (before != null && before.isAfter(defaultCutoff)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "before must not be later than " + defaultCutoff + " (app.archive.retain-for)");
+        }
+        LocalDate cutoff = before != null ? before : defaultCutoff;
+        return enrollmentArchiveService.archive(cutoff)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.CONFLICT, "Archiving is already running"));
     }
     
     @GetMapping("/course/{courseId}")
     public List<EnrollmentDTO> getEnrollmentsByCourse(@PathVariable Integer courseId) {
-        return enrollmentRepository.findById_CourseId(courseId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return enrollmentRepository.findDTOsByCourseId(courseId);
+    }
+    
+    @GetMapping(value = "/course/{courseId}", params = NORMALIZED)
+    public NormalizedEnrollments getEnrollmentsByCourseNormalized(@PathVariable Integer courseId) {
+        return NormalizedEnrollments.of(enrollmentRepository.findDTOsByCourseId(courseId));
+    }
+    
+    @GetMapping("/course/{courseId}/page")
+    public EnrollmentPage getEnrollmentPageByCourse(
+            @PathVariable Integer courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "100") int size) {
+        EnrollmentCursor after = decodeCursor(cursor);
+        return toPage(enrollmentRepository.findDTOsByCourseIdAfter(courseId, after.getStudentId(), seekLimit(size)), size);
     }
     
     @PostMapping
-    public ResponseEntity<?> createEnrollment(@RequestBody EnrollmentRequest request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<EnrollmentDTO> createEnrollment(
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey,
+            @RequestBody EnrollmentRequest request, HttpServletRequest httpRequest) {
+        requireIds(request);
+        if (idempotencyKey == null) {
+            return transactionTemplate.execute(status -> insertEnrollment(request));
+        }
+        // Checked and stored around the transaction, so only committed results are replayed
+        return idempotencyCache.execute(httpRequest, idempotencyKey, request,
+                () -> transactionTemplate.execute(status -> insertEnrollment(request)));
+    }
+    
+    private ResponseEntity<EnrollmentDTO> insertEnrollment(EnrollmentRequest request) {
         // Verify student exists
         Student student = studentRepository.findById(request.getStudentId())
-                .orElseThrow(() -> new RuntimeException("Student not found"));
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Student not found"));
         
         // Verify course exists
         Course course = courseRepository.findById(request.getCourseId())
-                .orElseThrow(() -> new RuntimeException("Course not found"));
-        
-        // Create composite key
-        EnrollmentId enrollmentId = new EnrollmentId(request.getStudentId(), request.getCourseId());
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found"));
         
         // Create enrollment
         Enrollment enrollment = new Enrollment();
-        enrollment.setId(enrollmentId);
+        enrollment.setId(new EnrollmentId(request.getStudentId(), request.getCourseId()));
         enrollment.setStudent(student);
         enrollment.setCourse(course);
         enrollment.setEnrollmentDate(request.getEnrollmentDate());
         enrollment.setGrade(request.getGrade());
         
-        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
-        return ResponseEntity.status(HttpStatus.CREATED).body(convertToDTO(savedEnrollment));
+        // Create-only: with its version still null the enrollment is persisted, never merged, and
+        // the primary key rejects an existing or concurrently created pair without reading it first
+        Enrollment savedEnrollment;
+        try {
+            savedEnrollment = enrollmentRepository.saveAndFlush(enrollment);
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateKey(e)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Enrollment already exists");
+            }
+            throw e;
+        }
+        
+        // Take a seat; the conditional UPDATE enforces the capacity and a full course rolls the insert back
+        if (courseSeatRepository.reserveSeats(course.getCourseId(), 1) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Course is full");
+        }
+        enrollmentSummaryService.added(savedEnrollment);
+        outboxService.enrollment(OutboxService.CREATED, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(ETags.of(savedEnrollment.getVersion()))
+                .body(convertToDTO(savedEnrollment));
+    }
+    
+    // Insert-or-update without reading the row: repeating it is harmless, so retries need no
+    // Idempotency-Key. Answers 201 when the enrollment was created and 200 when it was updated.
+    @PostMapping("/upsert")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<EnrollmentDTO> upsertEnrollment(@RequestBody EnrollmentRequest request) {
+        requireIds(request);
+        try {
+            return transactionTemplate.execute(status -> mergeEnrollment(request));
+        } catch (DataIntegrityViolationException e) {
+            if (!isDuplicateKey(e)) {
+                throw e;
+            }
+            // A concurrent upsert inserted the same pair first; run again as an update
+            return transactionTemplate.execute(status -> mergeEnrollment(request));
+        }
+    }
+    
+    private ResponseEntity<EnrollmentDTO> mergeEnrollment(EnrollmentRequest request) {
+        Integer studentId = request.getStudentId();
+        Integer courseId = request.getCourseId();
+        // Usually second-level cache hits
+        if (studentRepository.findById(studentId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Student not found");
+        }
+        if (courseRepository.findById(courseId).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
+        }
+        
+        enrollmentSummaryService.subtractRow(studentId, courseId);
+        enrollmentRepository.upsert(studentId, courseId, request.getEnrollmentDate(), request.getGrade());
+        
+        // The seat follows what the MERGE actually did. A concurrent insert of the same pair fails
+        // one of the two MERGEs on the primary key, so the pair is never counted twice.
+        EnrollmentDTO dto = enrollmentRepository.findDTOById(studentId, courseId).orElseThrow();
+        boolean created = dto.getVersion() == 0;
+        if (created && courseSeatRepository.reserveSeats(courseId, 1) == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Course is full");
+        }
+        enrollmentSummaryService.addRow(studentId, courseId);
+        outboxService.enrollment(created ? OutboxService.CREATED : OutboxService.UPDATED, request);
+        
+        return ResponseEntity.status(created ? HttpStatus.CREATED : HttpStatus.OK)
+                .eTag(ETags.of(dto.getVersion()))
+                .body(dto);
+    }
+    
+    private static boolean isDuplicateKey(DataIntegrityViolationException e) {
+        return e instanceof DuplicateKeyException
+                || (e.getMostSpecificCause() instanceof SQLException sql && "23505".equals(sql.getSQLState()));
+    }
+    
+    // Queues the enrollment for the background writers and answers right away with 202 and a
+    // status URL. Unknown ids and existing pairs are refused up front with 404 and 409; capacity is
+    // only decided when the command is written.
+    @PostMapping("/commands")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<EnrollmentCommandStatus> submitEnrollment(
+            @RequestHeader(value = IdempotencyCache.HEADER, required = false) String idempotencyKey,
+            @RequestBody EnrollmentRequest request, HttpServletRequest httpRequest) {
+        requireIds(request);
+        if (idempotencyKey == null) {
+            return queueEnrollment(request);
+        }
+        // A retried submission gets the original command back instead of queueing a second one
+        return idempotencyCache.execute(httpRequest, idempotencyKey, request, () -> queueEnrollment(request));
+    }
+    
+    private ResponseEntity<EnrollmentCommandStatus> queueEnrollment(EnrollmentRequest request) {
+        // On the primary, so a student or course created a moment ago is already visible
+        transactionTemplate.executeWithoutResult(status -> validateCommand(request));
+        return enrollmentCommandService.submit(request)
+                .map(status -> ResponseEntity.accepted()
+                        .location(URI.create("/api/enrollments/commands/" + status.getCommandId()))
+                        .body(status))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+    
+    private void validateCommand(EnrollmentRequest request) {
+        // Usually second-level cache hits
+        if (studentRepository.findById(request.getStudentId()).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Student not found");
+        }
+        if (courseRepository.findById(request.getCourseId()).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course not found");
+        }
+        if (enrollmentRepository.existsById(new EnrollmentId(request.getStudentId(), request.getCourseId()))) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Enrollment already exists");
+        }
+    }
+    
+    @GetMapping("/commands/{commandId}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<EnrollmentCommandStatus> getEnrollmentCommand(@PathVariable String commandId) {
+        return enrollmentCommandService.status(commandId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    private static void requireIds(EnrollmentRequest request) {
+        if (request.getStudentId() == null || request.getCourseId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "studentId and courseId are required");
+        }
+    }
+    
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkEnrollmentResult importEnrollments(InputStream body) throws IOException {
+        // readValues walks either a top-level JSON array or a stream of NDJSON lines,
+        // so neither format is ever held in memory as a whole
+        try (MappingIterator<EnrollmentRequest> requests = objectMapper.readerFor(EnrollmentRequest.class).readValues(body)) {
+            return enrollmentImportService.importEnrollments(requests);
+        } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (RuntimeException e) {
+            // MappingIterator wraps parse errors from later lines in a plain RuntimeException
+            if (e.getCause() instanceof JsonProcessingException) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+            }
+            throw e;
+        }
     }
     
     @PutMapping("/student/{studentId}/course/{courseId}")
+    @Transactional
     public ResponseEntity<EnrollmentDTO> updateEnrollment(
             @PathVariable Integer studentId,
             @PathVariable Integer courseId,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody EnrollmentRequest request) {
         EnrollmentId id = new EnrollmentId(studentId, courseId);
         return enrollmentRepository.findById(id)
                 .map(existingEnrollment -> {
+                    if (!ETags.matches(ifMatch, existingEnrollment.getVersion())) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<EnrollmentDTO>build();
+                    }
+                    enrollmentSummaryService.changed(courseId,
+                            existingEnrollment.getEnrollmentDate(), existingEnrollment.getGrade(),
+                            request.getEnrollmentDate(), request.getGrade());
                     existingEnrollment.setEnrollmentDate(request.getEnrollmentDate());
                     existingEnrollment.setGrade(request.getGrade());
-                    Enrollment updated = enrollmentRepository.save(existingEnrollment);
-                    return ResponseEntity.ok(convertToDTO(updated));
+                    Enrollment updated = enrollmentRepository.saveAndFlush(existingEnrollment);
+                    outboxService.enrollment(OutboxService.UPDATED,
+                            new EnrollmentRequest(studentId, courseId, updated.getEnrollmentDate(), updated.getGrade()));
+                    return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(convertToDTO(updated));
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @DeleteMapping("/student/{studentId}/course/{courseId}")
+    @Transactional
     public ResponseEntity<Void> deleteEnrollment(
             @PathVariable Integer studentId,
             @PathVariable Integer courseId) {
         EnrollmentId id = new EnrollmentId(studentId, courseId);
-        if (enrollmentRepository.existsById(id)) {
-            enrollmentRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return enrollmentRepository.findById(id)
+                .map(enrollment -> {
+                    enrollmentRepository.delete(enrollment);
+                    courseSeatRepository.releaseSeats(courseId, 1);
+                    enrollmentSummaryService.removed(enrollment);
+                    outboxService.enrollmentDeleted(studentId, courseId);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 }
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.config.IdempotencyProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Bounded in-memory store behind the {@code Idempotency-Key} request header. Keys are scoped to
+ * the method and path, so the same key sent to two endpoints names two requests. The first request
+ * with a key runs; retries with the same key and body get its response back, marked with
+ * {@code Idempotent-Replayed: true}, without touching the database. A retry that arrives while
+ * the original is still running waits for it. Client errors are replayed too. Server errors are
+ * forgotten so the request can be retried.
+ *
+ * <p>Callers run this outside their transaction, so only committed outcomes are stored.
+ */
+@Component
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyCache {
+    
+    static final String HEADER = "Idempotency-Key";
+    
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private final Cache<String, Entry> entries;
+    
+    private final long waitTimeoutMillis;
+    
+    public IdempotencyCache(IdempotencyProperties properties) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxEntries())
+                .expireAfterWrite(properties.getRetention())
+                .build();
+        this.waitTimeoutMillis = properties.getWaitTimeout().toMillis();
+    }
+    
+    public <T> ResponseEntity<T> execute(HttpServletRequest httpRequest, String key, Object request,
+                                         Supplier<ResponseEntity<T>> action) {
+        key = httpRequest.getMethod() + ' ' + httpRequest.getRequestURI() + ' ' + key;
+        Entry entry = new Entry(request);
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            return replay(existing, request);
+        }
+        try {
+            ResponseEntity<T> response = action.get();
+            entry.response.complete(response);
+            return response;
+        } catch (ResponseStatusException e) {
+            if (!e.getStatusCode().is4xxClientError()) {
+                entries.asMap().remove(key, entry);
+            }
+            entry.response.completeExceptionally(e);
+            throw e;
+        } catch (RuntimeException e) {
+            entries.asMap().remove(key, entry);
+            entry.response.completeExceptionally(e);
+            throw e;
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(Entry entry, Object request) {
+        if (!entry.request.equals(request)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key was already used for a different request");
+        }
+        ResponseEntity<T> original;
+        try {
+            original = (ResponseEntity<T>) entry.response.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+    
+    private static final class Entry {
+        
+        private final Object request;
+        
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+        
+        private Entry(Object request) {
+            this.request = request;
+        }
+    }
+}
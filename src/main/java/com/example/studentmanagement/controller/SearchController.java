@@ -0,0 +1,29 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.SearchHit;
+import com.example.studentmanagement.service.SearchIndexService;
+
+import lombok.RequiredArgsConstructor;
+
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+// Served from the in-memory index; no database access
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/search")
+public class SearchController {
+    
+    private static final int MAX_LIMIT = 100;
+    
+    private final SearchIndexService searchIndexService;
+    
+    @GetMapping
+    public List<SearchHit> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "20") int limit) {
+        return searchIndexService.search(q, type, Math.min(limit, MAX_LIMIT));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.studentmanagement.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
+import com.fasterxml.jackson.databind.introspect.NopAnnotationIntrospector;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implements the {@code fields=} sparse fieldset parameter for every JSON, CBOR or Smile
+ * response, e.g. {@code ?fields=studentId,grade}. The fields are kept on each row: the elements
+ * of a top-level collection or page, or the object itself.
+ *
+ * <p>The properties are dropped while the converter writes the body, through the Jackson filter
+ * that {@link #INTROSPECTOR} attaches to every bean, so the response is serialized only once.
+ */
+@RestControllerAdvice
+public class SparseFieldsetAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+    
+    static final String FIELDS_PARAMETER = "fields";
+    
+    static final String FILTER_ID = "sparseFieldset";
+    
+    /** Gives beans without their own {@code @JsonFilter} the sparse fieldset filter. */
+    public static final NopAnnotationIntrospector INTROSPECTOR = new NopAnnotationIntrospector() {
+        @Override
+        public Object findFilterId(Annotated annotated) {
+            return annotated instanceof AnnotatedClass ? FILTER_ID : null;
+        }
+    };
+    
+    /** Used when no {@code fields=} was given: every property is written. */
+    public static final SimpleFilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+    
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        String fields = servletRequest.getServletRequest().getParameter(FIELDS_PARAMETER);
+        if (fields == null || fields.isBlank()) {
+            return;
+        }
+        Set<String> kept = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty())
+                .collect(Collectors.toSet());
+        
+        // Rows are matched by identity, so nested objects of the same type keep all their fields
+        Set<Object> rows = Collections.newSetFromMap(new IdentityHashMap<>());
+        Object body = bodyContainer.getValue();
+        if (body instanceof Iterable<?> elements) {
+            elements.forEach(rows::add);
+        } else if (body instanceof Object[] elements) {
+            rows.addAll(Arrays.asList(elements));
+        } else {
+            rows.add(body);
+        }
+        bodyContainer.setFilters(new SimpleFilterProvider()
+                .setDefaultFilter(new RowFilter(rows, kept)));
+    }
+    
+    private static final class RowFilter extends SimpleBeanPropertyFilter {
+        
+        private final Set<Object> rows;
+        private final Set<String> kept;
+        
+        RowFilter(Set<Object> rows, Set<String> kept) {
+            this.rows = rows;
+            this.kept = kept;
+        }
+        
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator generator, SerializerProvider provider,
+                                     PropertyWriter writer) throws Exception {
+            if (!rows.contains(pojo) || kept.contains(writer.getName())) {
+                writer.serializeAsField(pojo, generator, provider);
+            } else if (!generator.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, generator, provider);
+            }
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package com.example.studentmanagement.controller;
 
+import com.example.studentmanagement.dto.BulkDeleteResult;
+import com.example.studentmanagement.dto.StudentCourseCount;
+import com.example.studentmanagement.dto.Transcript;
 import com.example.studentmanagement.entity.Student;
+import com.example.studentmanagement.repository.EnrollmentRepository;
 import com.example.studentmanagement.repository.StudentRepository;
+import com.example.studentmanagement.service.CascadeDeleteService;
+import com.example.studentmanagement.service.OutboxService;
+import com.example.studentmanagement.service.SearchIndexService;
+import com.example.studentmanagement.service.TranscriptService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -9,19 +17,34 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequiredArgsConstructor
-@Transactional
+@Transactional(readOnly = true)
 @RequestMapping("/api/students")
 public class StudentController {
     
     private final StudentRepository studentRepository;
     
+    private final EnrollmentRepository enrollmentRepository;
+    
+    private final CascadeDeleteService cascadeDeleteService;
+    
+    private final SearchIndexService searchIndexService;
+    
+    private final TranscriptService transcriptService;
+    
+    private final OutboxService outboxService;
+    
+    private static final int MAX_TRANSCRIPTS = 5000;
+    
     @GetMapping
     public ResponseEntity<Page<Student>> getAllStudents(
             @RequestParam(defaultValue = "0") int page,
@@ -39,38 +62,90 @@ public class StudentController {
     @GetMapping("/{id}")
     public ResponseEntity<Student> getStudentById(@PathVariable Integer id) {
         return studentRepository.findById(id)
+                .map(student -> ResponseEntity.ok().eTag(ETags.of(student.getVersion())).body(student))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/{id}/course-count")
+    public ResponseEntity<StudentCourseCount> getCourseCount(@PathVariable Integer id) {
+        if (!studentRepository.existsById(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        // Served from the primary key index, whose leading column is student_id
+        return ResponseEntity.ok(new StudentCourseCount(id, enrollmentRepository.countById_StudentId(id)));
+    }
+    
+    // Courses, grades, credit totals and GPA in one call and one query
+    @GetMapping("/{id}/transcript")
+    public ResponseEntity<Transcript> getTranscript(@PathVariable Integer id) {
+        return transcriptService.getTranscript(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
     
+    // A whole cohort at once; unknown ids are skipped
+    @PostMapping("/transcripts")
+    public ResponseEntity<List<Transcript>> getTranscripts(@RequestBody List<Integer> ids) {
+        if (ids.size() > MAX_TRANSCRIPTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(transcriptService.getTranscripts(ids));
+    }
+    
     @PostMapping
+    @Transactional
     public ResponseEntity<Student> createStudent(@RequestBody Student student) {
         Student savedStudent = studentRepository.save(student);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedStudent);
+        searchIndexService.index(savedStudent);
+        outboxService.student(OutboxService.CREATED, savedStudent);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(ETags.of(savedStudent.getVersion())).body(savedStudent);
+    }
+    
+    @PostMapping("/bulk")
+    @Transactional
+    public ResponseEntity<List<Student>> createStudents(@RequestBody List<Student> students) {
+        List<Student> saved = studentRepository.saveAll(students);
+        saved.forEach(searchIndexService::index);
+        saved.forEach(student -> outboxService.student(OutboxService.CREATED, student));
+        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
     }
     
     @PutMapping("/{id}")
-    public ResponseEntity<Student> updateStudent(@PathVariable Integer id, @RequestBody Student student) {
+    @Transactional
+    public ResponseEntity<Student> updateStudent(
+            @PathVariable Integer id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestBody Student student) {
         return studentRepository.findById(id)
                 .map(existingStudent -> {
+                    if (!ETags.matches(ifMatch, existingStudent.getVersion())) {
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Student>build();
+                    }
                     existingStudent.setFirstName(student.getFirstName());
                     existingStudent.setLastName(student.getLastName());
                     existingStudent.setEmail(student.getEmail());
                     existingStudent.setEnrollmentDate(student.getEnrollmentDate());
-                    return ResponseEntity.ok(studentRepository.save(existingStudent));
+                    Student updated = studentRepository.saveAndFlush(existingStudent);
+                    searchIndexService.index(updated);
+                    outboxService.student(OutboxService.UPDATED, updated);
+                    return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
     
     @DeleteMapping("/{id}")
+    @Transactional
     public ResponseEntity<Void> deleteStudent(@PathVariable Integer id) {
-        return studentRepository.findById(id)
-                .map(student -> {
-                    // Clear the enrollments collection before deleting
-                    student.getEnrollments().clear();
-                    studentRepository.delete(student);
-                    return ResponseEntity.noContent().<Void>build();
-                })
-                .orElse(ResponseEntity.notFound().build());
+        // Seats and enrollments go with bulk statements; the collection is never loaded
+        if (cascadeDeleteService.deleteStudents(List.of(id)).getDeleted() == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+    
+    @PostMapping("/bulk-delete")
+    @Transactional
+    public ResponseEntity<BulkDeleteResult> deleteStudents(@RequestBody List<Integer> ids) {
+        return ResponseEntity.ok(cascadeDeleteService.deleteStudents(ids));
     }
-}
\ No newline at end of file
+}
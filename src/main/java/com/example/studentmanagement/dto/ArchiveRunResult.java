@@ -0,0 +1,22 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchiveRunResult {
+    // Graded enrollments dated before this were archived
+    private LocalDate archivedBefore;
+    private int chunks;
+    private int students;
+    private long enrollments;
+    // Chunks rolled back because their enrollments changed mid-copy; the next run retries them
+    private int skippedChunks;
+    private int skippedStudents;
+    private long elapsedMillis;
+}
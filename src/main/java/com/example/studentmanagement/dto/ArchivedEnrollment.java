@@ -0,0 +1,22 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// An enrollment as stored in the archive, course columns as they were when it was archived
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ArchivedEnrollment {
+    private Integer studentId;
+    private Integer courseId;
+    private String courseCode;
+    private String courseName;
+    private Integer credits;
+    private LocalDate enrollmentDate;
+    private String grade;
+    private Long version;
+}
@@ -0,0 +1,30 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentResult {
+    private int received;
+    private int inserted;
+    // Already enrolled, or repeated within the same upload
+    private int duplicates;
+    // Missing ids, or an unknown student or course
+    private int rejected;
+    // Not enough free seats left in the course
+    private int overCapacity;
+    // Could not be written for a reason other than the above; safe to resend
+    private int failed;
+
+    public void add(BulkEnrollmentResult other) {
+        received += other.received;
+        inserted += other.inserted;
+        duplicates += other.duplicates;
+        rejected += other.rejected;
+        overCapacity += other.overCapacity;
+        failed += other.failed;
+    }
+}
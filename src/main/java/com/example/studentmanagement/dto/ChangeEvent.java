@@ -0,0 +1,26 @@
+package com.example.studentmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeEvent {
+    // Consecutive per published event; resume after the last one seen
+    private Long offset;
+    // "student", "course" or "enrollment"
+    private String aggregateType;
+    // Entity id, "studentId:courseId" for enrollments
+    private String aggregateId;
+    // "created", "updated" or "deleted"
+    private String type;
+    // The entity as of the change; null for deletes
+    @JsonRawValue
+    private String payload;
+    private LocalDateTime occurredAt;
+}
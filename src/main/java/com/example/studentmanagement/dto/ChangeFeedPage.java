@@ -0,0 +1,16 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedPage {
+    private List<ChangeEvent> events;
+    // Pass as after= to get the following events
+    private long nextOffset;
+}
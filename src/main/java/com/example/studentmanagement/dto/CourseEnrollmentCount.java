@@ -0,0 +1,15 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseEnrollmentCount {
+    private Integer courseId;
+    private Integer enrollmentCount;
+    // null when the course has no seat limit
+    private Integer capacity;
+}
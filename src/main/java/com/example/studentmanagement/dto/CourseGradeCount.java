@@ -0,0 +1,14 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseGradeCount {
+    private Integer courseId;
+    private String grade;
+    private Long count;
+}
@@ -0,0 +1,25 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentCommandStatus {
+    private String commandId;
+    private Integer studentId;
+    private Integer courseId;
+    private State state;
+    
+    public enum State {
+        QUEUED,
+        ENROLLED,
+        // The pair was already enrolled, possibly by an earlier attempt of this same command
+        ALREADY_ENROLLED,
+        REJECTED,
+        OVER_CAPACITY,
+        FAILED
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Seek position in the (student_id, course_id) ordering of enrollments.
+ * Serialized as an opaque URL-safe token so clients don't depend on the key layout.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentCursor {
+
+    public static final EnrollmentCursor FIRST = new EnrollmentCursor(Integer.MIN_VALUE, Integer.MIN_VALUE);
+
+    private Integer studentId;
+    private Integer courseId;
+
+    public String encode() {
+        String raw = studentId + ":" + courseId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EnrollmentCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            return new EnrollmentCursor(
+                    Integer.valueOf(raw.substring(0, separator)),
+                    Integer.valueOf(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+}
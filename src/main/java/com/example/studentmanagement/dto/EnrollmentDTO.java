@@ -16,4 +16,5 @@ public class EnrollmentDTO {
     private String courseCode;
     private LocalDate enrollmentDate;
     private String grade;
+    private Long version;
 }
\ No newline at end of file
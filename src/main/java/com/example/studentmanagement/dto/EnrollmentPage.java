@@ -0,0 +1,15 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentPage {
+    private List<EnrollmentDTO> content;
+    // Opaque token for the next page, null when this is the last one
+    private String nextCursor;
+}
@@ -0,0 +1,55 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Enrollment listing that sends each student name and course once, keyed by id, instead of
+ * repeating them on every row as {@link EnrollmentDTO} does.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NormalizedEnrollments {
+    private Map<Integer, String> students;
+    private Map<Integer, CourseRef> courses;
+    private List<Row> enrollments;
+    
+    public static NormalizedEnrollments of(List<EnrollmentDTO> dtos) {
+        Map<Integer, String> students = new LinkedHashMap<>();
+        Map<Integer, CourseRef> courses = new LinkedHashMap<>();
+        List<Row> rows = new ArrayList<>(dtos.size());
+        for (EnrollmentDTO dto : dtos) {
+            students.putIfAbsent(dto.getStudentId(), dto.getStudentName());
+            courses.computeIfAbsent(dto.getCourseId(), id -> new CourseRef(dto.getCourseName(), dto.getCourseCode()));
+            rows.add(new Row(dto.getStudentId(), dto.getCourseId(), dto.getEnrollmentDate(), dto.getGrade(), dto.getVersion()));
+        }
+        return new NormalizedEnrollments(students, courses, rows);
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseRef {
+        private String courseName;
+        private String courseCode;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private Integer studentId;
+        private Integer courseId;
+        private LocalDate enrollmentDate;
+        private String grade;
+        private Long version;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.studentmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    // "student" or "course"
+    private String type;
+    private Integer id;
+    // Student name or course name
+    private String title;
+    // Student email or course code
+    private String detail;
+    // Version of the row it was read from; lets the index drop changes that arrive out of order
+    @JsonIgnore
+    private Long version;
+}
@@ -0,0 +1,15 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryRebuildResult {
+    private int courses;
+    private int chunks;
+    private long summaryRows;
+    private long elapsedMillis;
+}
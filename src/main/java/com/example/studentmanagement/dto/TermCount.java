@@ -0,0 +1,14 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TermCount {
+    // yyyy-spring (January to June) or yyyy-fall (July to December); '' for undated enrollments
+    private String term;
+    private Long count;
+}
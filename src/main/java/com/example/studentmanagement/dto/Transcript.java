@@ -0,0 +1,27 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Transcript {
+    private Integer studentId;
+    private String firstName;
+    private String lastName;
+    private String email;
+    // Credits of every enrolled course
+    private int attemptedCredits;
+    // Credits of courses with a letter grade, the GPA denominator
+    private int gradedCredits;
+    // Credits of courses passed with D- or better
+    private int earnedCredits;
+    // Credit-weighted, two decimals; null until something is graded
+    private BigDecimal gpa;
+    private List<TranscriptCourse> courses;
+}
@@ -0,0 +1,22 @@
+package com.example.studentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranscriptCourse {
+    private Integer courseId;
+    private String courseCode;
+    private String courseName;
+    private Integer credits;
+    private LocalDate enrollmentDate;
+    private String grade;
+    // Null for ungraded courses and grades outside the letter scale
+    private BigDecimal gradePoints;
+}
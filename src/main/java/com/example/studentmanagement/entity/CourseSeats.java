@@ -0,0 +1,25 @@
+package com.example.studentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+// Seats taken in a course. Not part of Course, so registrations leave the course cache region and
+// the course version (its ETag) alone. Only changed by the conditional UPDATEs in CourseSeatRepository.
+@Entity
+@Table(name = "course_seats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseSeats {
+    
+    @Id
+    @Column(name = "course_id")
+    private Integer courseId;
+    
+    @Column(name = "enrollment_count", nullable = false)
+    @ColumnDefault("0")
+    private Integer enrollmentCount = 0;
+}
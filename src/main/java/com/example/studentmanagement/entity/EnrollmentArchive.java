@@ -0,0 +1,40 @@
+package com.example.studentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Written by EnrollmentArchiveService; the payload is a gzip-compressed JSON array of ArchivedEnrollment
+@Entity
+@Table(name = "enrollment_archives")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentArchive {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollment_archive_seq")
+    @SequenceGenerator(name = "enrollment_archive_seq", sequenceName = "enrollment_archives_seq", allocationSize = 50)
+    @Column(name = "archive_id")
+    private Long id;
+    
+    @Column(name = "student_id", nullable = false)
+    private Integer studentId;
+    
+    @Column(name = "row_count", nullable = false)
+    private Integer rowCount;
+    
+    // The cutoff of the run that wrote it
+    @Column(name = "archived_before", nullable = false)
+    private LocalDate archivedBefore;
+    
+    @Lob
+    @Column(name = "payload", nullable = false)
+    private byte[] payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
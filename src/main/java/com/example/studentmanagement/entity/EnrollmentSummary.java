@@ -0,0 +1,23 @@
+package com.example.studentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+// Maintained with native MERGE statements in EnrollmentSummaryRepository, never through the entity
+@Entity
+@Immutable
+@Table(name = "enrollment_summaries")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentSummary {
+    
+    @EmbeddedId
+    private EnrollmentSummaryId id;
+    
+    @Column(name = "enrollment_count", nullable = false)
+    private Long enrollmentCount;
+}
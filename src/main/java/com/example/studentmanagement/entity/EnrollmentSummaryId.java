@@ -0,0 +1,51 @@
+package com.example.studentmanagement.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Objects;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EnrollmentSummaryId implements Serializable {
+    
+    // Undated and ungraded enrollments are counted under ''
+    static final String NONE = "";
+    
+    @Column(name = "course_id")
+    private Integer courseId;
+    
+    // yyyy-MM of the enrollment date
+    @Column(name = "period", length = 7)
+    private String period;
+    
+    @Column(name = "grade", length = 2)
+    private String grade;
+    
+    public static EnrollmentSummaryId of(Integer courseId, LocalDate enrollmentDate, String grade) {
+        String period = enrollmentDate != null ? YearMonth.from(enrollmentDate).toString() : NONE;
+        return new EnrollmentSummaryId(courseId, period, grade != null ? grade : NONE);
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EnrollmentSummaryId that = (EnrollmentSummaryId) o;
+        return Objects.equals(courseId, that.courseId) &&
+               Objects.equals(period, that.period) &&
+               Objects.equals(grade, that.grade);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(courseId, period, grade);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.studentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Written by OutboxService, numbered and published by OutboxRelay
+@Entity
+@Table(name = "outbox_events")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    @Column(name = "event_id")
+    private Long id;
+    
+    // Null until published
+    @Column(name = "event_offset", unique = true)
+    private Long offset;
+    
+    // Set just before the writing transaction commits; the relay numbers events in this order
+    @Column(name = "commit_order")
+    private Long commitOrder;
+    
+    @Column(name = "aggregate_type", nullable = false, length = 20)
+    private String aggregateType;
+    
+    @Column(name = "aggregate_id", nullable = false, length = 40)
+    private String aggregateId;
+    
+    @Column(name = "event_type", nullable = false, length = 20)
+    private String eventType;
+    
+    // JSON
+    @Column(name = "payload", length = 4000)
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,15 +1,26 @@
 package com.example.studentmanagement.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
+@Cacheable
+// Student, enrollments and their courses in one joined select, for transcripts
+@NamedEntityGraph(
+        name = "Student.transcript",
+        attributeNodes = @NamedAttributeNode(value = "enrollments", subgraph = "enrollment"),
+        subgraphs = @NamedSubgraph(name = "enrollment", attributeNodes = @NamedAttributeNode("course")))
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "student")
 @Table(name = "students")
 @Data
 @NoArgsConstructor
@@ -17,7 +28,9 @@ import java.util.List;
 public class Student {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Pooled sequence rather than IDENTITY so inserts can be JDBC-batched
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "students_seq", allocationSize = 50)
     @Column(name = "student_id")
     private Integer studentId;
     
@@ -33,6 +46,12 @@ public class Student {
     @Column(name = "enrollment_date")
     private LocalDate enrollmentDate;
     
+    @Version
+    @Column(name = "version", nullable = false)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+    
     @OneToMany(mappedBy = "student", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
     private List<Enrollment> enrollments = new ArrayList<>();
@@ -1,9 +1,44 @@
 package com.example.studentmanagement.repository;
 
+import com.example.studentmanagement.dto.SearchHit;
 import com.example.studentmanagement.entity.Course;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface CourseRepository extends JpaRepository<Course, Integer> {
+    // The catalog and code lookups go through the query cache; entries are invalidated
+    // whenever the courses table is written, and the rows themselves come from the course region.
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Course> findAll();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Course> findByCourseCode(String courseCode);
+
+    // Search index projection; must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.studentmanagement.dto.SearchHit('course', c.courseId, c.courseName, c.courseCode, "
+            + "c.version) from Course c")
+    Stream<SearchHit> streamSearchHits();
+
+    @Query("select c.courseId from Course c where c.courseId in :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("select c.courseId from Course c order by c.courseId")
+    List<Integer> findAllIds();
+
+    // Enrollments must be gone first; clears the persistence context so no stale Course survives
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Course c where c.courseId in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Integer> ids);
 }
@@ -0,0 +1,59 @@
+package com.example.studentmanagement.repository;
+
+import com.example.studentmanagement.dto.CourseEnrollmentCount;
+import com.example.studentmanagement.entity.CourseSeats;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface CourseSeatRepository extends JpaRepository<CourseSeats, Integer> {
+    // Every course needs its counter row before it can take registrations; call this in the
+    // transaction that creates the courses. Flushes first so the new courses are visible.
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "course_seats"))
+    @Query(value = "insert into course_seats (course_id, enrollment_count) "
+            + "select c.course_id, 0 from courses c where c.course_id in (:courseIds)", nativeQuery = true)
+    int insertForCourses(@Param("courseIds") Collection<Integer> courseIds);
+
+    @Query("select new com.example.studentmanagement.dto.CourseEnrollmentCount(c.courseId, s.enrollmentCount, c.capacity) "
+            + "from Course c join CourseSeats s on s.courseId = c.courseId where c.courseId = :courseId")
+    Optional<CourseEnrollmentCount> findEnrollmentCount(@Param("courseId") Integer courseId);
+
+    // Seat counters are only changed with single conditional UPDATEs: the row lock taken by the
+    // UPDATE serializes concurrent registrations, and the capacity check happens in the same
+    // statement, so there is no read-modify-write window. A result of 0 means the course is full
+    // (or does not exist). These only touch course_seats, so the course cache region is not evicted.
+    @Modifying
+    @Query("update CourseSeats s set s.enrollmentCount = s.enrollmentCount + :seats "
+            + "where s.courseId = :courseId and not exists (select c from Course c "
+            + "where c.courseId = s.courseId and c.capacity < s.enrollmentCount + :seats)")
+    int reserveSeats(@Param("courseId") Integer courseId, @Param("seats") int seats);
+
+    @Modifying
+    @Query("update CourseSeats s set s.enrollmentCount = s.enrollmentCount - :seats "
+            + "where s.courseId = :courseId and s.enrollmentCount >= :seats")
+    int releaseSeats(@Param("courseId") Integer courseId, @Param("seats") int seats);
+
+    // Gives back every seat held by the given students, one UPDATE for all affected courses.
+    // Must run before their enrollments are deleted. Clamped at 0 in case a count has drifted.
+    @Modifying
+    @Query("update CourseSeats s set s.enrollmentCount = greatest(s.enrollmentCount - (select count(e) "
+            + "from Enrollment e where e.id.courseId = s.courseId and e.id.studentId in :studentIds), 0) "
+            + "where s.courseId in (select e.id.courseId from Enrollment e where e.id.studentId in :studentIds)")
+    int releaseSeatsOfStudents(@Param("studentIds") Collection<Integer> studentIds);
+
+    // Same for the enrollments EnrollmentRepository.deleteArchivable is about to remove
+    @Modifying
+    @Query("update CourseSeats s set s.enrollmentCount = greatest(s.enrollmentCount - (select count(e) "
+            + "from Enrollment e where e.id.courseId = s.courseId and " + EnrollmentRepository.ARCHIVABLE + "), 0) "
+            + "where s.courseId in (select e.id.courseId from Enrollment e where " + EnrollmentRepository.ARCHIVABLE + ")")
+    int releaseSeatsOfArchivable(@Param("studentIds") Collection<Integer> studentIds,
+                                 @Param("before") LocalDate before);
+}
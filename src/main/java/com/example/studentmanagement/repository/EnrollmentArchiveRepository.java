@@ -0,0 +1,25 @@
+package com.example.studentmanagement.repository;
+
+import com.example.studentmanagement.entity.EnrollmentArchive;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+
+public interface EnrollmentArchiveRepository extends JpaRepository<EnrollmentArchive, Long> {
+    List<EnrollmentArchive> findByStudentIdOrderById(Integer studentId);
+
+    // Keyset chunks over all archives, for the summary rebuild
+    List<EnrollmentArchive> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    // One query for a whole cohort
+    @Query("select a from EnrollmentArchive a where a.studentId in :studentIds order by a.id")
+    List<EnrollmentArchive> findByStudentIds(@Param("studentIds") Collection<Integer> studentIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from EnrollmentArchive a where a.studentId in :studentIds")
+    int deleteByStudentIds(@Param("studentIds") Collection<Integer> studentIds);
+}
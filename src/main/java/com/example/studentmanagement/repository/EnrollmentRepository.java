@@ -1,11 +1,122 @@
 package com.example.studentmanagement.repository;
 
+import com.example.studentmanagement.dto.ArchivedEnrollment;
+import com.example.studentmanagement.dto.EnrollmentDTO;
 import com.example.studentmanagement.entity.Enrollment;
 import com.example.studentmanagement.entity.EnrollmentId;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface EnrollmentRepository extends JpaRepository<Enrollment, EnrollmentId> {
     List<Enrollment> findById_StudentId(Integer studentId);
     List<Enrollment> findById_CourseId(Integer courseId);
-}
\ No newline at end of file
+    long countById_StudentId(Integer studentId);
+
+    // DTO projections: student and course columns come back in the same joined SELECT,
+    // so listings never touch the LAZY associations of a managed Enrollment.
+    String DTO_SELECT = "select new com.example.studentmanagement.dto.EnrollmentDTO("
+            + "e.id.studentId, e.id.courseId, concat(s.firstName, ' ', s.lastName), "
+            + "c.courseName, c.courseCode, e.enrollmentDate, e.grade, e.version) "
+            + "from Enrollment e join e.student s join e.course c ";
+
+    @Query(DTO_SELECT)
+    List<EnrollmentDTO> findAllDTOs();
+
+    @Query(DTO_SELECT + "where e.id.studentId = :studentId and e.id.courseId = :courseId")
+    Optional<EnrollmentDTO> findDTOById(@Param("studentId") Integer studentId, @Param("courseId") Integer courseId);
+
+    @Query(DTO_SELECT + "where e.id.studentId = :studentId")
+    List<EnrollmentDTO> findDTOsByStudentId(@Param("studentId") Integer studentId);
+
+    @Query(DTO_SELECT + "where e.id.courseId = :courseId")
+    List<EnrollmentDTO> findDTOsByCourseId(@Param("courseId") Integer courseId);
+
+    // Keyset pagination on the (student_id, course_id) primary key: each page seeks past the
+    // last key of the previous one, so deep pages cost the same as the first.
+    @Query(DTO_SELECT + "where e.id.studentId >= :studentId "
+            + "and (e.id.studentId > :studentId or e.id.courseId > :courseId) "
+            + "order by e.id.studentId, e.id.courseId")
+    List<EnrollmentDTO> findDTOsAfter(@Param("studentId") Integer studentId, @Param("courseId") Integer courseId,
+                                      Pageable pageable);
+
+    @Query(DTO_SELECT + "where e.id.courseId = :courseId and e.id.studentId > :studentId order by e.id.studentId")
+    List<EnrollmentDTO> findDTOsByCourseIdAfter(@Param("courseId") Integer courseId,
+                                                @Param("studentId") Integer studentId, Pageable pageable);
+
+    @Query(DTO_SELECT + "where e.id.studentId = :studentId and e.id.courseId > :courseId order by e.id.courseId")
+    List<EnrollmentDTO> findDTOsByStudentIdAfter(@Param("studentId") Integer studentId,
+                                                 @Param("courseId") Integer courseId, Pageable pageable);
+
+    // Superset of the existing keys among the given students x courses; callers filter exact pairs
+    @Query("select e.id from Enrollment e where e.id.studentId in :studentIds and e.id.courseId in :courseIds")
+    List<EnrollmentId> findExistingIds(@Param("studentIds") Collection<Integer> studentIds,
+                                       @Param("courseIds") Collection<Integer> courseIds);
+
+    // Inserts or updates the enrollment in one statement. An inserted row has version 0, an
+    // updated one a higher version, which tells the caller whether it still needs a seat.
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "enrollments"))
+    @Query(value = "merge into enrollments t "
+            + "using (select cast(:studentId as integer) as student_id, cast(:courseId as integer) as course_id, "
+            + "cast(:enrollmentDate as date) as enrollment_date, cast(:grade as varchar(2)) as grade) s "
+            + "on (t.student_id = s.student_id and t.course_id = s.course_id) "
+            + "when matched then update set t.enrollment_date = s.enrollment_date, t.grade = s.grade, "
+            + "t.version = t.version + 1 "
+            + "when not matched then "
+            + "insert (student_id, course_id, enrollment_date, grade, version) "
+            + "values (s.student_id, s.course_id, s.enrollment_date, s.grade, 0)", nativeQuery = true)
+    int upsert(@Param("studentId") Integer studentId, @Param("courseId") Integer courseId,
+               @Param("enrollmentDate") LocalDate enrollmentDate, @Param("grade") String grade);
+
+    // One DELETE per call instead of loading the collection and removing the orphans one by one
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Enrollment e where e.id.studentId in :studentIds")
+    int deleteByStudentIds(@Param("studentIds") Collection<Integer> studentIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from Enrollment e where e.id.courseId in :courseIds")
+    int deleteByCourseIds(@Param("courseIds") Collection<Integer> courseIds);
+
+    // Must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(DTO_SELECT + "order by e.id.studentId, e.id.courseId")
+    Stream<EnrollmentDTO> streamAllDTOs();
+
+    // Archiving: graded enrollments dated before the cutoff, taken a chunk of students at a time
+    String ARCHIVABLE = "e.id.studentId in :studentIds and e.enrollmentDate < :before and e.grade is not null";
+
+    @Query("select distinct e.id.studentId from Enrollment e where e.id.studentId > :after "
+            + "and e.enrollmentDate < :before and e.grade is not null order by e.id.studentId")
+    List<Integer> findStudentIdsToArchive(@Param("after") Integer after, @Param("before") LocalDate before,
+                                          Limit limit);
+
+    // Holds the rows until the archiving transaction ends, so no grade changes under the copy
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Enrollment e where " + ARCHIVABLE)
+    List<Enrollment> lockArchivable(@Param("studentIds") Collection<Integer> studentIds,
+                                    @Param("before") LocalDate before);
+
+    @Query("select new com.example.studentmanagement.dto.ArchivedEnrollment(e.id.studentId, e.id.courseId, "
+            + "c.courseCode, c.courseName, c.credits, e.enrollmentDate, e.grade, e.version) "
+            + "from Enrollment e join e.course c where " + ARCHIVABLE)
+    List<ArchivedEnrollment> findArchivable(@Param("studentIds") Collection<Integer> studentIds,
+                                            @Param("before") LocalDate before);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Enrollment e where " + ARCHIVABLE)
+    int deleteArchivable(@Param("studentIds") Collection<Integer> studentIds, @Param("before") LocalDate before);
+}
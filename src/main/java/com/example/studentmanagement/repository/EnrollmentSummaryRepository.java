@@ -0,0 +1,126 @@
+package com.example.studentmanagement.repository;
+
+import com.example.studentmanagement.dto.CourseGradeCount;
+import com.example.studentmanagement.dto.GradeCount;
+import com.example.studentmanagement.dto.PeriodCount;
+import com.example.studentmanagement.dto.TermCount;
+import com.example.studentmanagement.entity.EnrollmentSummary;
+import com.example.studentmanagement.entity.EnrollmentSummaryId;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
+
+public interface EnrollmentSummaryRepository extends JpaRepository<EnrollmentSummary, EnrollmentSummaryId> {
+    // GROUP BY over the summary rows, so the cost depends on the number of buckets, not enrollments
+    @Query("select new com.example.studentmanagement.dto.GradeCount(nullif(s.id.grade, ''), sum(s.enrollmentCount)) "
+            + "from EnrollmentSummary s where s.id.courseId = :courseId group by s.id.grade order by s.id.grade")
+    List<GradeCount> findGradeDistribution(@Param("courseId") Integer courseId);
+
+    @Query("select new com.example.studentmanagement.dto.CourseGradeCount(s.id.courseId, nullif(s.id.grade, ''), "
+            + "sum(s.enrollmentCount)) from EnrollmentSummary s "
+            + "group by s.id.courseId, s.id.grade order by s.id.courseId, s.id.grade")
+    List<CourseGradeCount> findGradeDistributions();
+
+    // Periods are yyyy-MM strings, so they compare chronologically; undated enrollments ('') sort first
+    @Query("select new com.example.studentmanagement.dto.PeriodCount(s.id.period, sum(s.enrollmentCount)) "
+            + "from EnrollmentSummary s where s.id.courseId = :courseId and s.id.period between :from and :to "
+            + "group by s.id.period order by s.id.period")
+    List<PeriodCount> findEnrollmentTrend(@Param("courseId") Integer courseId,
+                                          @Param("from") String from, @Param("to") String to);
+
+    // Terms are derived from the monthly buckets: spring is January to June, fall July to December.
+    // Undated enrollments ('') stay in their own '' term.
+    String TERM = "case when s.id.period = '' then '' "
+            + "when substring(s.id.period, 6, 2) < '07' then concat(substring(s.id.period, 1, 4), '-spring') "
+            + "else concat(substring(s.id.period, 1, 4), '-fall') end";
+
+    // The month each term starts with sorts it chronologically, spring before fall
+    @Query("select new com.example.studentmanagement.dto.TermCount(" + TERM + ", sum(s.enrollmentCount)) "
+            + "from EnrollmentSummary s where s.id.courseId = :courseId "
+            + "group by " + TERM + " order by min(s.id.period)")
+    List<TermCount> findTermCounts(@Param("courseId") Integer courseId);
+
+    @Query("select new com.example.studentmanagement.dto.TermCount(" + TERM + ", sum(s.enrollmentCount)) "
+            + "from EnrollmentSummary s group by " + TERM + " order by min(s.id.period)")
+    List<TermCount> findTermTotals();
+
+    // A term's grades are the sum of its months
+    @Query("select new com.example.studentmanagement.dto.GradeCount(nullif(s.id.grade, ''), sum(s.enrollmentCount)) "
+            + "from EnrollmentSummary s where s.id.courseId = :courseId and s.id.period between :from and :to "
+            + "group by s.id.grade order by s.id.grade")
+    List<GradeCount> findGradeDistributionBetween(@Param("courseId") Integer courseId,
+                                                  @Param("from") String from, @Param("to") String to);
+
+    // The native statements below declare their table as the query space; otherwise Hibernate
+    // would evict every second-level cache region on each enrollment write.
+
+    // Two MERGEs creating the same bucket both miss it, and the second INSERT fails on the primary
+    // key. Writers that may create buckets first lock the courses' seat rows, which registrations
+    // lock anyway, so they take turns per course. Ascending order keeps multi-course writers from
+    // deadlocking.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "course_seats"))
+    @Query(value = "select s.course_id from course_seats s where s.course_id in (:courseIds) "
+            + "order by s.course_id for update", nativeQuery = true)
+    List<Integer> lockCourses(@Param("courseIds") Collection<Integer> courseIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "enrollment_summaries"))
+    @Query(value = "merge into enrollment_summaries t "
+            + "using (select cast(:courseId as integer) as course_id, cast(:period as varchar(7)) as period, "
+            + "cast(:grade as varchar(2)) as grade, cast(:delta as bigint) as delta) s "
+            + "on (t.course_id = s.course_id and t.period = s.period and t.grade = s.grade) "
+            + "when matched and t.enrollment_count + s.delta <= 0 then delete "
+            + "when matched then update set t.enrollment_count = t.enrollment_count + s.delta "
+            + "when not matched and s.delta > 0 then insert (course_id, period, grade, enrollment_count) "
+            + "values (s.course_id, s.period, s.grade, s.delta)", nativeQuery = true)
+    int applyDelta(@Param("courseId") Integer courseId, @Param("period") String period,
+                   @Param("grade") String grade, @Param("delta") long delta);
+
+    // Counts (delta 1) or uncounts (delta -1) the current state of one enrollment row, if it exists
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "enrollment_summaries"))
+    @Query(value = "merge into enrollment_summaries t "
+            + "using (select e.course_id, coalesce(formatdatetime(e.enrollment_date, 'yyyy-MM'), '') as period, "
+            + "coalesce(e.grade, '') as grade, cast(:delta as bigint) as delta from enrollments e "
+            + "where e.student_id = :studentId and e.course_id = :courseId) s "
+            + "on (t.course_id = s.course_id and t.period = s.period and t.grade = s.grade) "
+            + "when matched and t.enrollment_count + s.delta <= 0 then delete "
+            + "when matched then update set t.enrollment_count = t.enrollment_count + s.delta "
+            + "when not matched and s.delta > 0 then insert (course_id, period, grade, enrollment_count) "
+            + "values (s.course_id, s.period, s.grade, s.delta)", nativeQuery = true)
+    int applyEnrollmentRow(@Param("studentId") Integer studentId, @Param("courseId") Integer courseId,
+                           @Param("delta") long delta);
+
+    // Must run before the students' enrollments are deleted
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "enrollment_summaries"))
+    @Query(value = "merge into enrollment_summaries t "
+            + "using (select e.course_id, coalesce(formatdatetime(e.enrollment_date, 'yyyy-MM'), '') as period, "
+            + "coalesce(e.grade, '') as grade, count(*) as removed from enrollments e "
+            + "where e.student_id in (:studentIds) "
+            + "group by e.course_id, coalesce(formatdatetime(e.enrollment_date, 'yyyy-MM'), ''), coalesce(e.grade, '')) s "
+            + "on (t.course_id = s.course_id and t.period = s.period and t.grade = s.grade) "
+            + "when matched and t.enrollment_count <= s.removed then delete "
+            + "when matched then update set t.enrollment_count = t.enrollment_count - s.removed", nativeQuery = true)
+    int subtractStudents(@Param("studentIds") Collection<Integer> studentIds);
+
+    @Modifying
+    @Query("delete from EnrollmentSummary s where s.id.courseId in :courseIds")
+    int deleteByCourseIds(@Param("courseIds") Collection<Integer> courseIds);
+
+    // Recomputes the buckets of the given courses from the enrollments table; delete them first
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "enrollment_summaries"))
+    @Query(value = "insert into enrollment_summaries (course_id, period, grade, enrollment_count) "
+            + "select e.course_id, coalesce(formatdatetime(e.enrollment_date, 'yyyy-MM'), ''), coalesce(e.grade, ''), "
+            + "count(*) from enrollments e where e.course_id in (:courseIds) "
+            + "group by e.course_id, coalesce(formatdatetime(e.enrollment_date, 'yyyy-MM'), ''), coalesce(e.grade, '')",
+            nativeQuery = true)
+    int insertFromEnrollments(@Param("courseIds") Collection<Integer> courseIds);
+}
@@ -0,0 +1,49 @@
+package com.example.studentmanagement.repository;
+
+import com.example.studentmanagement.dto.ChangeEvent;
+import com.example.studentmanagement.entity.OutboxEvent;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Unpublished events in the order their transactions committed, then written
+    @Query("select e from OutboxEvent e where e.offset is null and e.commitOrder is not null "
+            + "order by e.commitOrder, e.id")
+    List<OutboxEvent> findUnpublished(Limit limit);
+
+    // Locks the counter row until the transaction ends; see OutboxService
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox_commit_order"))
+    @Query(value = "update outbox_commit_order set last_order = last_order + 1 where id = 1", nativeQuery = true)
+    int incrementCommitOrder();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "outbox_commit_order"))
+    @Query(value = "select last_order from outbox_commit_order where id = 1", nativeQuery = true)
+    long findCommitOrder();
+
+    @Modifying(flushAutomatically = true)
+    @Query("update OutboxEvent e set e.commitOrder = :commitOrder where e.id in :ids")
+    int setCommitOrder(@Param("ids") Collection<Long> ids, @Param("commitOrder") long commitOrder);
+
+    // Served from the unique offset index
+    @Query("select new com.example.studentmanagement.dto.ChangeEvent(e.offset, e.aggregateType, e.aggregateId, "
+            + "e.eventType, e.payload, e.createdAt) from OutboxEvent e where e.offset > :after order by e.offset")
+    List<ChangeEvent> findPublishedAfter(@Param("after") long after, Limit limit);
+
+    @Query("select coalesce(max(e.offset), 0) from OutboxEvent e")
+    long findLastOffset();
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.offset is not null and e.createdAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
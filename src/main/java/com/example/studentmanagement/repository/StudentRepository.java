@@ -1,9 +1,45 @@
 package com.example.studentmanagement.repository;
 
+import com.example.studentmanagement.dto.SearchHit;
 import com.example.studentmanagement.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface StudentRepository extends JpaRepository<Student, Integer> {
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<Student> findByEmail(String email);
+
+    // Search index projection; must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select new com.example.studentmanagement.dto.SearchHit('student', s.studentId, "
+            + "concat(s.firstName, ' ', s.lastName), s.email, s.version) from Student s")
+    Stream<SearchHit> streamSearchHits();
+
+    @EntityGraph("Student.transcript")
+    @Query("select s from Student s where s.studentId = :id")
+    Optional<Student> findTranscriptById(@Param("id") Integer id);
+
+    // One query for the whole list, enrollments and courses included
+    @EntityGraph("Student.transcript")
+    @Query("select s from Student s where s.studentId in :ids")
+    List<Student> findTranscriptsByIds(@Param("ids") Collection<Integer> ids);
+
+    @Query("select s.studentId from Student s where s.studentId in :ids")
+    Set<Integer> findExistingIds(@Param("ids") Collection<Integer> ids);
+
+    // Enrollments must be gone first; clears the persistence context so no stale Student survives
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Student s where s.studentId in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Integer> ids);
 }
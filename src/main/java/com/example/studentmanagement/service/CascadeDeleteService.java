@@ -0,0 +1,85 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.dto.BulkDeleteResult;
+import com.example.studentmanagement.repository.CourseRepository;
+import com.example.studentmanagement.repository.CourseSeatRepository;
+import com.example.studentmanagement.repository.EnrollmentArchiveRepository;
+import com.example.studentmanagement.repository.EnrollmentRepository;
+import com.example.studentmanagement.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes students and courses together with their enrollments using a fixed number of bulk
+ * statements, no matter how many enrollments are involved. This replaces loading the
+ * {@code enrollments} collection and letting orphan removal delete one row at a time.
+ *
+ * <p>Deleting a student also deletes their archived enrollments. Deleting a course leaves them:
+ * the archive keeps its own copy of the course columns.
+ *
+ * <p>Hibernate evicts the second-level cache regions touched by bulk DML. The final delete
+ * clears the persistence context, so nothing stale stays managed.
+ */
+@Service
+@RequiredArgsConstructor
+public class CascadeDeleteService {
+
+    private final StudentRepository studentRepository;
+
+    private final CourseRepository courseRepository;
+
+    private final CourseSeatRepository courseSeatRepository;
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final EnrollmentArchiveRepository enrollmentArchiveRepository;
+
+    private final EnrollmentSummaryService enrollmentSummaryService;
+
+    private final SearchIndexService searchIndexService;
+
+    private final OutboxService outboxService;
+
+    @Transactional
+    public BulkDeleteResult deleteStudents(Collection<Integer> studentIds) {
+        Set<Integer> ids = distinctIds(studentIds);
+        if (ids.isEmpty()) {
+            return new BulkDeleteResult(0, 0, 0);
+        }
+        // Only students that actually go get a deleted event
+        outboxService.studentsDeleted(studentRepository.findExistingIds(ids));
+        // Seats and summaries are adjusted while the enrollments and archives still say what they counted
+        courseSeatRepository.releaseSeatsOfStudents(ids);
+        enrollmentSummaryService.removeStudents(ids);
+        enrollmentSummaryService.removeArchivedStudents(ids);
+        int enrollments = enrollmentRepository.deleteByStudentIds(ids);
+        enrollmentArchiveRepository.deleteByStudentIds(ids);
+        int students = studentRepository.deleteAllByIds(ids);
+        searchIndexService.removeStudents(ids);
+        return new BulkDeleteResult(ids.size(), students, enrollments);
+    }
+
+    @Transactional
+    public BulkDeleteResult deleteCourses(Collection<Integer> courseIds) {
+        Set<Integer> ids = distinctIds(courseIds);
+        if (ids.isEmpty()) {
+            return new BulkDeleteResult(0, 0, 0);
+        }
+        outboxService.coursesDeleted(courseRepository.findExistingIds(ids));
+        enrollmentSummaryService.removeCourses(ids);
+        int enrollments = enrollmentRepository.deleteByCourseIds(ids);
+        int courses = courseRepository.deleteAllByIds(ids);
+        searchIndexService.removeCourses(ids);
+        return new BulkDeleteResult(ids.size(), courses, enrollments);
+    }
+
+    private static Set<Integer> distinctIds(Collection<Integer> ids) {
+        return ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+}
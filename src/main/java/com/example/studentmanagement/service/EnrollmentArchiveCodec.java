@@ -0,0 +1,46 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.dto.ArchivedEnrollment;
+import com.example.studentmanagement.entity.EnrollmentArchive;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Reads and writes the gzip-compressed JSON payload of an EnrollmentArchive
+@Component
+@RequiredArgsConstructor
+public class EnrollmentArchiveCodec {
+
+    private static final TypeReference<List<ArchivedEnrollment>> ROWS = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+
+    public byte[] compress(List<ArchivedEnrollment> rows) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, rows);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public List<ArchivedEnrollment> decompress(EnrollmentArchive archive) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(archive.getPayload()))) {
+            return objectMapper.readValue(in, ROWS);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.studentmanagement.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// Runs the archive on app.archive.schedule when app.archive.enabled is set
+@Slf4j
+@Component
+@EnableScheduling
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "app.archive", name = "enabled")
+public class EnrollmentArchiveJob {
+
+    private final EnrollmentArchiveService archiveService;
+
+    @Scheduled(cron = "${app.archive.schedule:0 30 2 * * *}")
+    public void archive() {
+        try {
+            if (archiveService.archive(archiveService.defaultCutoff()).isEmpty()) {
+                log.info("Skipping scheduled enrollment archiving, a run is already in progress");
+            }
+        } catch (RuntimeException e) {
+            log.warn("Enrollment archiving failed; the next run resumes with the students not yet archived", e);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.config.EnrollmentArchiveProperties;
+import com.example.studentmanagement.dto.ArchiveRunResult;
+import com.example.studentmanagement.dto.ArchivedEnrollment;
+import com.example.studentmanagement.dto.EnrollmentDTO;
+import com.example.studentmanagement.entity.EnrollmentArchive;
+import com.example.studentmanagement.repository.CourseSeatRepository;
+import com.example.studentmanagement.repository.EnrollmentArchiveRepository;
+import com.example.studentmanagement.repository.EnrollmentRepository;
+import com.example.studentmanagement.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Cold tier for enrollments of completed terms. {@link #archive} moves graded enrollments dated
+ * before a cutoff out of the enrollments table into {@code enrollment_archives}, one
+ * gzip-compressed JSON document per student and run. Transcripts and enrollment history merge
+ * them back in.
+ *
+ * <p>A run walks the affected students in key order, a chunk per transaction. Each chunk writes
+ * the copies, gives back the seats and deletes the rows in one commit, so a run that stops halfway
+ * leaves every student either archived or untouched, and the next run picks up whoever still has
+ * archivable rows. A chunk whose enrollments change while it is being copied is rolled back,
+ * reported as skipped, and the run goes on with the next one.
+ *
+ * <p>Archived enrollments hold no seats, but they stay counted in the enrollment analytics:
+ * archiving leaves {@code enrollment_summaries} as it is.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@EnableConfigurationProperties(EnrollmentArchiveProperties.class)
+public class EnrollmentArchiveService {
+
+    private static final Comparator<EnrollmentDTO> HISTORY_ORDER = Comparator
+            .comparing(EnrollmentDTO::getEnrollmentDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(EnrollmentDTO::getCourseId);
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final EnrollmentArchiveRepository archiveRepository;
+
+    private final CourseSeatRepository courseSeatRepository;
+
+    private final StudentRepository studentRepository;
+
+    private final OutboxService outboxService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final EnrollmentArchiveCodec codec;
+
+    private final EnrollmentArchiveProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // The cutoff implied by app.archive.retain-for
+    public LocalDate defaultCutoff() {
+        return LocalDate.now().minus(properties.getRetainFor());
+    }
+
+    // Empty if a run is already in progress on this instance
+    public Optional<ArchiveRunResult> archive(LocalDate before) {
+        if (!running.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        try {
+            long started = System.nanoTime();
+            int chunks = 0;
+            int students = 0;
+            long enrollments = 0;
+            int skippedChunks = 0;
+            int skippedStudents = 0;
+            // Ids come from sequences starting at 1
+            Integer after = 0;
+            while (true) {
+                Integer last = after;
+                List<Integer> studentIds = transactionTemplate.execute(status -> enrollmentRepository
+                        .findStudentIdsToArchive(last, before, Limit.of(properties.getChunkSize())));
+                if (studentIds == null || studentIds.isEmpty()) {
+                    break;
+                }
+                after = studentIds.get(studentIds.size() - 1);
+                try {
+                    Integer archived = transactionTemplate.execute(status -> archiveChunk(studentIds, before));
+                    enrollments += Objects.requireNonNull(archived);
+                    chunks++;
+                    students += studentIds.size();
+                } catch (ChunkChangedException e) {
+                    log.warn("Skipped archiving students {}..{}: {}", studentIds.get(0), after, e.getMessage());
+                    skippedChunks++;
+                    skippedStudents += studentIds.size();
+                }
+            }
+            long elapsed = (System.nanoTime() - started) / 1_000_000;
+            log.info("Archived {} enrollments of {} students dated before {} in {} ms ({} chunks skipped)",
+                    enrollments, students, before, elapsed, skippedChunks);
+            return Optional.of(new ArchiveRunResult(before, chunks, students, enrollments,
+                    skippedChunks, skippedStudents, elapsed));
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<ArchivedEnrollment> findByStudent(Integer studentId) {
+        List<ArchivedEnrollment> rows = new ArrayList<>();
+        archiveRepository.findByStudentIdOrderById(studentId).forEach(archive -> rows.addAll(codec.decompress(archive)));
+        return rows;
+    }
+
+    // One query for the whole cohort; students without archives are absent from the map
+    @Transactional(readOnly = true)
+    public Map<Integer, List<ArchivedEnrollment>> findByStudents(Collection<Integer> studentIds) {
+        Map<Integer, List<ArchivedEnrollment>> rows = new HashMap<>();
+        if (studentIds.isEmpty()) {
+            return rows;
+        }
+        archiveRepository.findByStudentIds(studentIds).forEach(archive ->
+                rows.computeIfAbsent(archive.getStudentId(), id -> new ArrayList<>()).addAll(codec.decompress(archive)));
+        return rows;
+    }
+
+    // Current and archived enrollments of the student, oldest first
+    @Transactional(readOnly = true)
+    public List<EnrollmentDTO> history(Integer studentId) {
+        List<EnrollmentDTO> history = new ArrayList<>(enrollmentRepository.findDTOsByStudentId(studentId));
+        List<ArchivedEnrollment> archived = findByStudent(studentId);
+        if (!archived.isEmpty()) {
+            String studentName = history.isEmpty()
+                    ? studentRepository.findById(studentId)
+                            .map(student -> student.getFirstName() + " " + student.getLastName()).orElse(null)
+                    : history.get(0).getStudentName();
+            for (ArchivedEnrollment row : archived) {
+                history.add(new EnrollmentDTO(row.getStudentId(), row.getCourseId(), studentName, row.getCourseName(),
+                        row.getCourseCode(), row.getEnrollmentDate(), row.getGrade(), row.getVersion()));
+            }
+        }
+        history.sort(HISTORY_ORDER);
+        return history;
+    }
+
+    private int archiveChunk(List<Integer> studentIds, LocalDate before) {
+        enrollmentRepository.lockArchivable(studentIds, before);
+        List<ArchivedEnrollment> rows = enrollmentRepository.findArchivable(studentIds, before);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, List<ArchivedEnrollment>> byStudent = rows.stream().collect(
+                Collectors.groupingBy(ArchivedEnrollment::getStudentId, LinkedHashMap::new, Collectors.toList()));
+        LocalDateTime now = LocalDateTime.now();
+        List<EnrollmentArchive> archives = new ArrayList<>(byStudent.size());
+        byStudent.forEach((studentId, studentRows) -> archives.add(
+                new EnrollmentArchive(null, studentId, studentRows.size(), before, codec.compress(studentRows), now)));
+        archiveRepository.saveAll(archives);
+
+        // Seats are given back while the enrollments still say what they held. The summaries keep
+        // counting the archived rows, so the analytics don't change.
+        courseSeatRepository.releaseSeatsOfArchivable(studentIds, before);
+        outboxService.enrollmentsArchived(rows);
+        int deleted = enrollmentRepository.deleteArchivable(studentIds, before);
+        if (deleted != rows.size()) {
+            // An archivable enrollment was written after the copy; roll back and let the next run take it
+            throw new ChunkChangedException(rows.size(), deleted);
+        }
+        return deleted;
+    }
+
+    private static final class ChunkChangedException extends RuntimeException {
+
+        private ChunkChangedException(int copied, int deleted) {
+            super("copied " + copied + " enrollments but deleted " + deleted);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.config.EnrollmentCommandProperties;
+import com.example.studentmanagement.dto.EnrollmentCommandStatus;
+import com.example.studentmanagement.dto.EnrollmentCommandStatus.State;
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind pipeline for enrollment commands. Accepted commands wait in a bounded queue and
+ * a few writer threads drain it in batches, one transaction per batch, through
+ * {@link EnrollmentImportService}. The DB sees a steady rate from a fixed number of
+ * connections no matter how many requests arrive. A full queue refuses new commands, which
+ * is the backpressure signal for clients.
+ *
+ * <p>A batch that fails as a whole falls back to a transaction per command, so one bad command
+ * only fails itself. Commands that still fail for reasons other than their own data are retried
+ * on their own, up to {@code maxAttempts}. Inserts are idempotent on the enrollment key: a command
+ * for a pair that is already enrolled reports {@code ALREADY_ENROLLED} instead of inserting twice.
+ * The queue is in memory, so commands still queued when the process dies are lost.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(EnrollmentCommandProperties.class)
+public class EnrollmentCommandService implements SmartLifecycle {
+
+    private final EnrollmentImportService importService;
+
+    private final EnrollmentCommandProperties properties;
+
+    private final BlockingQueue<Command> queue;
+
+    private final Cache<String, EnrollmentCommandStatus> statuses;
+
+    private final List<Thread> writers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public EnrollmentCommandService(EnrollmentImportService importService, EnrollmentCommandProperties properties) {
+        this.importService = importService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxStatuses())
+                .expireAfterWrite(properties.getStatusRetention())
+                .build();
+    }
+
+    // Empty when the queue is full
+    public Optional<EnrollmentCommandStatus> submit(EnrollmentRequest request) {
+        String commandId = UUID.randomUUID().toString();
+        EnrollmentCommandStatus status = new EnrollmentCommandStatus(
+                commandId, request.getStudentId(), request.getCourseId(), State.QUEUED);
+        // Recorded first so a writer can never finish the command before its status exists
+        statuses.put(commandId, status);
+        if (!running || !queue.offer(new Command(commandId, request))) {
+            statuses.invalidate(commandId);
+            return Optional.empty();
+        }
+        return Optional.of(status);
+    }
+
+    public Optional<EnrollmentCommandStatus> status(String commandId) {
+        return Optional.ofNullable(statuses.getIfPresent(commandId));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        for (int i = 0; i < properties.getWriters(); i++) {
+            writers.add(Thread.ofPlatform().name("enrollment-writer-" + i).start(this::drain));
+        }
+    }
+
+    // Stops accepting commands and lets the writers finish what is already queued
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread writer : writers) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        writers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        List<Command> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                Command first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Command> batch) throws InterruptedException {
+        List<Command> pending = batch;
+        for (int attempt = 1; ; attempt++) {
+            List<EnrollmentOutcome> outcomes = importService.importOutcomes(
+                    pending.stream().map(Command::request).toList());
+            List<Command> failed = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i++) {
+                EnrollmentOutcome outcome = outcomes.get(i);
+                if (outcome == EnrollmentOutcome.FAILED && attempt < properties.getMaxAttempts()) {
+                    failed.add(pending.get(i));
+                    continue;
+                }
+                complete(pending.get(i), switch (outcome) {
+                    case INSERTED -> State.ENROLLED;
+                    case DUPLICATE -> State.ALREADY_ENROLLED;
+                    case REJECTED -> State.REJECTED;
+                    case OVER_CAPACITY -> State.OVER_CAPACITY;
+                    case FAILED -> State.FAILED;
+                });
+            }
+            if (failed.isEmpty()) {
+                return;
+            }
+            log.warn("{} of {} enrollment commands failed (attempt {} of {}), retrying",
+                    failed.size(), pending.size(), attempt, properties.getMaxAttempts());
+            Thread.sleep(100L * attempt);
+            pending = failed;
+        }
+    }
+
+    private void complete(Command command, State state) {
+        EnrollmentRequest request = command.request();
+        statuses.put(command.commandId(), new EnrollmentCommandStatus(
+                command.commandId(), request.getStudentId(), request.getCourseId(), state));
+    }
+
+    private record Command(String commandId, EnrollmentRequest request) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.dto.BulkEnrollmentResult;
+import com.example.studentmanagement.dto.CourseEnrollmentCount;
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.example.studentmanagement.entity.Enrollment;
+import com.example.studentmanagement.entity.EnrollmentId;
+import com.example.studentmanagement.entity.EnrollmentSummaryId;
+import com.example.studentmanagement.repository.CourseRepository;
+import com.example.studentmanagement.repository.CourseSeatRepository;
+import com.example.studentmanagement.repository.EnrollmentRepository;
+import com.example.studentmanagement.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inserts large enrollment uploads in chunked transactions. Each chunk validates its
+ * student and course ids with one set-based query per table and persists through
+ * JDBC batches, flushing and clearing the persistence context as it goes.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EnrollmentImportService {
+
+    // Rows per transaction; a failing chunk falls back to a transaction per row
+    static final int CHUNK_SIZE = 1000;
+
+    // Same as hibernate.jdbc.batch_size, so every flush sends full batches
+    static final int FLUSH_INTERVAL = 50;
+
+    private final EntityManager entityManager;
+
+    private final StudentRepository studentRepository;
+
+    private final CourseRepository courseRepository;
+
+    private final CourseSeatRepository courseSeatRepository;
+
+    private final EnrollmentRepository enrollmentRepository;
+
+    private final EnrollmentSummaryService enrollmentSummaryService;
+
+    private final OutboxService outboxService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkEnrollmentResult importEnrollments(Iterator<EnrollmentRequest> requests) {
+        BulkEnrollmentResult result = new BulkEnrollmentResult();
+        List<EnrollmentRequest> chunk = new ArrayList<>(CHUNK_SIZE);
+        while (requests.hasNext()) {
+            chunk.add(requests.next());
+            if (chunk.size() == CHUNK_SIZE) {
+                result.add(importChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            result.add(importChunk(chunk));
+        }
+        return result;
+    }
+
+    public BulkEnrollmentResult importChunk(List<EnrollmentRequest> chunk) {
+        BulkEnrollmentResult result = new BulkEnrollmentResult();
+        result.setReceived(chunk.size());
+        for (EnrollmentOutcome outcome : importOutcomes(chunk)) {
+            switch (outcome) {
+                case INSERTED -> result.setInserted(result.getInserted() + 1);
+                case DUPLICATE -> result.setDuplicates(result.getDuplicates() + 1);
+                case REJECTED -> result.setRejected(result.getRejected() + 1);
+                case OVER_CAPACITY -> result.setOverCapacity(result.getOverCapacity() + 1);
+                case FAILED -> result.setFailed(result.getFailed() + 1);
+            }
+        }
+        return result;
+    }
+
+    // One transaction for the chunk; the outcomes are in the order of the requests. A chunk that
+    // fails as a whole (a pair enrolled concurrently, a student deleted meanwhile) is retried a row
+    // per transaction, so only the offending rows lose out and each reports its own outcome.
+    public List<EnrollmentOutcome> importOutcomes(List<EnrollmentRequest> chunk) {
+        try {
+            return transactionTemplate.execute(status -> insertChunk(chunk));
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                return List.of(outcomeOf(e));
+            }
+            log.warn("Enrollment chunk of {} rows failed, retrying row by row", chunk.size(), e);
+            List<EnrollmentOutcome> outcomes = new ArrayList<>(chunk.size());
+            for (EnrollmentRequest request : chunk) {
+                try {
+                    outcomes.add(transactionTemplate.execute(status -> insertChunk(List.of(request))).get(0));
+                } catch (RuntimeException rowFailure) {
+                    outcomes.add(outcomeOf(rowFailure));
+                }
+            }
+            return outcomes;
+        }
+    }
+
+    // Constraint violations are the row's own fault; anything else is reported as a failure
+    private static EnrollmentOutcome outcomeOf(RuntimeException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sql && sql.getSQLState() != null) {
+                if ("23505".equals(sql.getSQLState())) {
+                    return EnrollmentOutcome.DUPLICATE;
+                }
+                if (sql.getSQLState().startsWith("23")) {
+                    return EnrollmentOutcome.REJECTED;
+                }
+            }
+        }
+        log.warn("Enrollment row failed", e);
+        return EnrollmentOutcome.FAILED;
+    }
+
+    private List<EnrollmentOutcome> insertChunk(List<EnrollmentRequest> chunk) {
+        EnrollmentOutcome[] outcomes = new EnrollmentOutcome[chunk.size()];
+
+        List<Integer> candidates = new ArrayList<>(chunk.size());
+        Set<Integer> studentIds = new HashSet<>();
+        Set<Integer> courseIds = new HashSet<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            EnrollmentRequest request = chunk.get(i);
+            if (request.getStudentId() == null || request.getCourseId() == null) {
+                outcomes[i] = EnrollmentOutcome.REJECTED;
+                continue;
+            }
+            candidates.add(i);
+            studentIds.add(request.getStudentId());
+            courseIds.add(request.getCourseId());
+        }
+        if (candidates.isEmpty()) {
+            return Arrays.asList(outcomes);
+        }
+
+        Set<Integer> knownStudents = studentRepository.findExistingIds(studentIds);
+        Set<Integer> knownCourses = courseRepository.findExistingIds(courseIds);
+        Set<EnrollmentId> taken = new HashSet<>(enrollmentRepository.findExistingIds(studentIds, courseIds));
+
+        Map<Integer, List<Integer>> acceptedByCourse = new LinkedHashMap<>();
+        for (int i : candidates) {
+            EnrollmentRequest request = chunk.get(i);
+            if (!knownStudents.contains(request.getStudentId()) || !knownCourses.contains(request.getCourseId())) {
+                outcomes[i] = EnrollmentOutcome.REJECTED;
+                continue;
+            }
+            if (!taken.add(new EnrollmentId(request.getStudentId(), request.getCourseId()))) {
+                outcomes[i] = EnrollmentOutcome.DUPLICATE;
+                continue;
+            }
+            acceptedByCourse.computeIfAbsent(request.getCourseId(), courseId -> new ArrayList<>()).add(i);
+        }
+
+        Map<EnrollmentSummaryId, Long> summaryDeltas = new HashMap<>();
+        int pending = 0;
+        for (Map.Entry<Integer, List<Integer>> course : acceptedByCourse.entrySet()) {
+            // Seats go to the requests in arrival order; the rest of the group is over capacity
+            List<Integer> requests = course.getValue();
+            int granted = reserveUpTo(course.getKey(), requests.size());
+            for (int n = 0; n < requests.size(); n++) {
+                int i = requests.get(n);
+                if (n >= granted) {
+                    outcomes[i] = EnrollmentOutcome.OVER_CAPACITY;
+                    continue;
+                }
+                EnrollmentRequest request = chunk.get(i);
+                Enrollment enrollment = new Enrollment();
+                enrollment.setId(new EnrollmentId(request.getStudentId(), request.getCourseId()));
+                enrollment.setStudent(studentRepository.getReferenceById(request.getStudentId()));
+                enrollment.setCourse(courseRepository.getReferenceById(request.getCourseId()));
+                enrollment.setEnrollmentDate(request.getEnrollmentDate());
+                enrollment.setGrade(request.getGrade());
+                // persist rather than save: the key is assigned, so save() would merge and SELECT first
+                entityManager.persist(enrollment);
+                outcomes[i] = EnrollmentOutcome.INSERTED;
+                outboxService.enrollment(OutboxService.CREATED, request);
+                summaryDeltas.merge(EnrollmentSummaryId.of(request.getCourseId(), request.getEnrollmentDate(), request.getGrade()),
+                        1L, Long::sum);
+
+                if (++pending % FLUSH_INTERVAL == 0) {
+                    entityManager.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        enrollmentSummaryService.apply(summaryDeltas);
+        return Arrays.asList(outcomes);
+    }
+
+    // Reserves as many of the wanted seats as are free. The whole group usually fits in one
+    // UPDATE; otherwise the free count is read and reserved, retrying if another writer got there first.
+    private int reserveUpTo(Integer courseId, int wanted) {
+        if (courseSeatRepository.reserveSeats(courseId, wanted) > 0) {
+            return wanted;
+        }
+        while (true) {
+            CourseEnrollmentCount count = courseSeatRepository.findEnrollmentCount(courseId).orElse(null);
+            if (count == null || count.getCapacity() == null) {
+                return 0;
+            }
+            int free = Math.min(wanted, count.getCapacity() - count.getEnrollmentCount());
+            if (free <= 0) {
+                return 0;
+            }
+            if (courseSeatRepository.reserveSeats(courseId, free) > 0) {
+                return free;
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.studentmanagement.service;
+
+public enum EnrollmentOutcome {
+    INSERTED,
+    // Already enrolled, or repeated within the same chunk
+    DUPLICATE,
+    // Missing ids, or an unknown student or course
+    REJECTED,
+    // No free seat left in the course
+    OVER_CAPACITY,
+    // The row's own transaction failed for a reason other than a constraint
+    FAILED
+}
@@ -0,0 +1,185 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.dto.ArchivedEnrollment;
+import com.example.studentmanagement.dto.SummaryRebuildResult;
+import com.example.studentmanagement.entity.Enrollment;
+import com.example.studentmanagement.entity.EnrollmentArchive;
+import com.example.studentmanagement.entity.EnrollmentSummaryId;
+import com.example.studentmanagement.repository.CourseRepository;
+import com.example.studentmanagement.repository.EnrollmentArchiveRepository;
+import com.example.studentmanagement.repository.EnrollmentSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps {@code enrollment_summaries} in step with the enrollments table and the archive. The
+ * write paths call it inside their own transaction, so a summary change commits or rolls back
+ * together with the enrollment change that caused it. Archiving moves rows without changing
+ * what they count, so only deleting archives uncounts them.
+ */
+@Service
+@RequiredArgsConstructor
+public class EnrollmentSummaryService {
+
+    // Courses recomputed per rebuild transaction
+    static final int REBUILD_CHUNK_SIZE = 100;
+
+    private static final int REBUILD_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    private final EnrollmentSummaryRepository summaryRepository;
+
+    private final CourseRepository courseRepository;
+
+    private final EnrollmentArchiveRepository archiveRepository;
+
+    private final EnrollmentArchiveCodec codec;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public void added(Enrollment enrollment) {
+        lockCourses(List.of(enrollment.getId().getCourseId()));
+        apply(EnrollmentSummaryId.of(enrollment.getId().getCourseId(), enrollment.getEnrollmentDate(), enrollment.getGrade()), 1);
+    }
+
+    public void removed(Enrollment enrollment) {
+        apply(EnrollmentSummaryId.of(enrollment.getId().getCourseId(), enrollment.getEnrollmentDate(), enrollment.getGrade()), -1);
+    }
+
+    public void changed(Integer courseId, LocalDate oldDate, String oldGrade, LocalDate newDate, String newGrade) {
+        EnrollmentSummaryId before = EnrollmentSummaryId.of(courseId, oldDate, oldGrade);
+        EnrollmentSummaryId after = EnrollmentSummaryId.of(courseId, newDate, newGrade);
+        if (!before.equals(after)) {
+            lockCourses(List.of(courseId));
+            apply(before, -1);
+            apply(after, 1);
+        }
+    }
+
+    // Set-based variants for writes that never load the enrollment: uncount the row before
+    // changing it and count it again afterwards
+    public void subtractRow(Integer studentId, Integer courseId) {
+        summaryRepository.applyEnrollmentRow(studentId, courseId, -1);
+    }
+
+    public void addRow(Integer studentId, Integer courseId) {
+        lockCourses(List.of(courseId));
+        summaryRepository.applyEnrollmentRow(studentId, courseId, 1);
+    }
+
+    // One MERGE per bucket, however many enrollments fell into it
+    public void apply(Map<EnrollmentSummaryId, Long> deltas) {
+        lockCourses(deltas.entrySet().stream()
+                .filter(delta -> delta.getValue() > 0)
+                .map(delta -> delta.getKey().getCourseId())
+                .collect(Collectors.toSet()));
+        deltas.forEach(this::apply);
+    }
+
+    public void removeStudents(Collection<Integer> studentIds) {
+        summaryRepository.subtractStudents(studentIds);
+    }
+
+    // Must run before the students' archives are deleted
+    public void removeArchivedStudents(Collection<Integer> studentIds) {
+        Map<EnrollmentSummaryId, Long> deltas = new HashMap<>();
+        archiveRepository.findByStudentIds(studentIds).forEach(archive -> count(archive, -1, deltas));
+        apply(deltas);
+    }
+
+    public void removeCourses(Collection<Integer> courseIds) {
+        summaryRepository.deleteByCourseIds(courseIds);
+    }
+
+    /**
+     * Recomputes every course's summaries from the enrollments table, a chunk of courses per
+     * transaction and several chunks at a time, then adds the archived enrollments a chunk of
+     * archives at a time. Enrollment writes that commit while a chunk is being recomputed can be
+     * counted twice or not at all, so run this when writes are quiet.
+     */
+    public SummaryRebuildResult rebuild() {
+        long started = System.nanoTime();
+        List<Integer> courseIds = courseRepository.findAllIds();
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (int from = 0; from < courseIds.size(); from += REBUILD_CHUNK_SIZE) {
+            chunks.add(courseIds.subList(from, Math.min(from + REBUILD_CHUNK_SIZE, courseIds.size())));
+        }
+
+        long rows = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(REBUILD_THREADS)) {
+            List<Future<Integer>> futures = new ArrayList<>(chunks.size());
+            for (List<Integer> chunk : chunks) {
+                futures.add(executor.submit(() -> transactionTemplate.execute(status -> {
+                    summaryRepository.deleteByCourseIds(chunk);
+                    return summaryRepository.insertFromEnrollments(chunk);
+                })));
+            }
+            for (Future<Integer> future : futures) {
+                rows += Objects.requireNonNull(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Summary rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Summary rebuild failed", e.getCause());
+        }
+
+        // Archives outlive their courses; the buckets of a deleted course went with it
+        Set<Integer> courses = new HashSet<>(courseIds);
+        // Archive ids come from a sequence starting at 1
+        Long after = 0L;
+        while (true) {
+            Long last = after;
+            List<EnrollmentArchive> archives = transactionTemplate.execute(status -> {
+                List<EnrollmentArchive> chunk = archiveRepository.findByIdGreaterThanOrderById(last,
+                        Limit.of(REBUILD_CHUNK_SIZE));
+                Map<EnrollmentSummaryId, Long> deltas = new HashMap<>();
+                chunk.forEach(archive -> count(archive, 1, deltas));
+                deltas.keySet().removeIf(key -> !courses.contains(key.getCourseId()));
+                apply(deltas);
+                return chunk;
+            });
+            if (archives == null || archives.isEmpty()) {
+                break;
+            }
+            after = archives.get(archives.size() - 1).getId();
+        }
+        return new SummaryRebuildResult(courseIds.size(), chunks.size(), rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private void count(EnrollmentArchive archive, long delta, Map<EnrollmentSummaryId, Long> deltas) {
+        for (ArchivedEnrollment row : codec.decompress(archive)) {
+            deltas.merge(EnrollmentSummaryId.of(row.getCourseId(), row.getEnrollmentDate(), row.getGrade()),
+                    delta, Long::sum);
+        }
+    }
+
+    // Before any MERGE that may insert a bucket; see EnrollmentSummaryRepository.lockCourses
+    private void lockCourses(Collection<Integer> courseIds) {
+        if (!courseIds.isEmpty()) {
+            summaryRepository.lockCourses(courseIds);
+        }
+    }
+
+    private void apply(EnrollmentSummaryId key, long delta) {
+        if (delta != 0) {
+            summaryRepository.applyDelta(key.getCourseId(), key.getPeriod(), key.getGrade(), delta);
+        }
+    }
+}
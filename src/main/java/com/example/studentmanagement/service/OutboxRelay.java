@@ -0,0 +1,355 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.config.OutboxProperties;
+import com.example.studentmanagement.dto.ChangeEvent;
+import com.example.studentmanagement.entity.OutboxEvent;
+import com.example.studentmanagement.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Publishes outbox events as a change feed with consecutive offsets.
+ *
+ * <p>A single relay thread picks up committed, unpublished events in commit order (see
+ * {@link OutboxService}) and gives each the next offset. Numbering at publication time means a
+ * consumer that has seen offset N never misses a transaction that committed late with an earlier
+ * write, and numbering in commit order means two changes to the same row reach it in the order
+ * they were made. The unique offset column stops a second numbering instance; other instances
+ * run with {@code assign-offsets: false} and follow the published offsets instead.
+ *
+ * <p>The most recent {@code buffer-size} events stay in a ring buffer, so consumers that keep
+ * up are served from memory. Only consumers further behind read the table. Stream subscribers
+ * are fed on virtual threads, so a slow client holds up neither the relay nor the others.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(OutboxProperties.class)
+public class OutboxRelay implements SmartLifecycle {
+
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OutboxProperties properties;
+
+    private final ChangeEvent[] ring;
+
+    // Offset of the newest published event, and how many of those up to it are in the ring
+    private long newestOffset;
+
+    private int buffered;
+
+    private final Semaphore wakeups = new Semaphore(0);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final List<Consumer<List<ChangeEvent>>> listeners = new CopyOnWriteArrayList<>();
+
+    private ExecutorService dispatcher;
+
+    private Thread relayThread;
+
+    private volatile boolean running;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, TransactionTemplate transactionTemplate,
+                       OutboxProperties properties) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.ring = new ChangeEvent[properties.getBufferSize()];
+    }
+
+    // Events published after the given offset, oldest first
+    public List<ChangeEvent> read(long after, int limit) {
+        if (!properties.isRelayEnabled()) {
+            return outboxEventRepository.findPublishedAfter(after, Limit.of(limit));
+        }
+        synchronized (ring) {
+            if (after >= newestOffset) {
+                return List.of();
+            }
+            if (after >= newestOffset - buffered) {
+                long last = Math.min(newestOffset, after + limit);
+                List<ChangeEvent> events = new ArrayList<>((int) (last - after));
+                for (long offset = after + 1; offset <= last; offset++) {
+                    events.add(ring[slot(offset)]);
+                }
+                return events;
+            }
+        }
+        return outboxEventRepository.findPublishedAfter(after, Limit.of(limit));
+    }
+
+    // Replays everything after the given offset, then streams new events as they are published
+    public SseEmitter subscribe(long after) {
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        Subscriber subscriber = new Subscriber(emitter, after);
+        subscribers.add(subscriber);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.wake();
+        return emitter;
+    }
+
+    // In-process consumers, called on the relay thread with every batch as it is published, in
+    // offset order. They must be quick; a slow one holds up the relay.
+    public void addListener(Consumer<List<ChangeEvent>> listener) {
+        listeners.add(listener);
+    }
+
+    // Called after commits that wrote events, so they don't wait for the next poll
+    public void wakeUp() {
+        if (wakeups.availablePermits() == 0) {
+            wakeups.release();
+        }
+    }
+
+    @Override
+    public void start() {
+        newestOffset = lastOffset();
+        dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+        running = true;
+        if (properties.isRelayEnabled()) {
+            relayThread = Thread.ofPlatform().name("outbox-relay").start(this::relay);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (relayThread != null) {
+            wakeUp();
+            try {
+                relayThread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            relayThread = null;
+        }
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+        dispatcher.shutdownNow();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void relay() {
+        long lastPurge = System.nanoTime();
+        long lastHeartbeat = System.nanoTime();
+        while (running) {
+            try {
+                int published = properties.isAssignOffsets() ? assignOffsets() : follow();
+                if (System.nanoTime() - lastPurge > PURGE_INTERVAL_NANOS) {
+                    purge();
+                    lastPurge = System.nanoTime();
+                }
+                if (System.nanoTime() - lastHeartbeat > properties.getHeartbeatInterval().toNanos()) {
+                    subscribers.forEach(Subscriber::heartbeat);
+                    lastHeartbeat = System.nanoTime();
+                }
+                // A full batch means more are probably waiting
+                if (published < properties.getBatchSize()) {
+                    wakeups.tryAcquire(properties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                    wakeups.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Outbox relay failed, resuming from the last published offset", e);
+                resync();
+                try {
+                    Thread.sleep(properties.getPollInterval().toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private int assignOffsets() {
+        long first = newestOffset + 1;
+        List<ChangeEvent> events = transactionTemplate.execute(status -> {
+            List<OutboxEvent> pending = outboxEventRepository.findUnpublished(Limit.of(properties.getBatchSize()));
+            List<ChangeEvent> numbered = new ArrayList<>(pending.size());
+            long offset = first;
+            for (OutboxEvent event : pending) {
+                event.setOffset(offset++);
+                numbered.add(new ChangeEvent(event.getOffset(), event.getAggregateType(), event.getAggregateId(),
+                        event.getEventType(), event.getPayload(), event.getCreatedAt()));
+            }
+            return numbered;
+        });
+        publish(events);
+        return events.size();
+    }
+
+    private int follow() {
+        long after = newestOffset;
+        List<ChangeEvent> events = transactionTemplate.execute(status ->
+                outboxEventRepository.findPublishedAfter(after, Limit.of(properties.getBatchSize())));
+        publish(events);
+        return events.size();
+    }
+
+    private void publish(List<ChangeEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        synchronized (ring) {
+            for (ChangeEvent event : events) {
+                ring[slot(event.getOffset())] = event;
+                newestOffset = event.getOffset();
+                buffered = Math.min(buffered + 1, ring.length);
+            }
+        }
+        subscribers.forEach(Subscriber::wake);
+        for (Consumer<List<ChangeEvent>> listener : listeners) {
+            try {
+                listener.accept(events);
+            } catch (RuntimeException e) {
+                log.warn("Change feed listener failed", e);
+            }
+        }
+    }
+
+    // Another writer numbered events, or a commit failed: drop the buffer and continue from the table
+    private void resync() {
+        try {
+            long last = lastOffset();
+            synchronized (ring) {
+                newestOffset = last;
+                buffered = 0;
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read the last outbox offset", e);
+        }
+    }
+
+    // Through the read-write template, so it comes from the primary even with a replica configured
+    private long lastOffset() {
+        return transactionTemplate.execute(status -> outboxEventRepository.findLastOffset());
+    }
+
+    private void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+        if (deleted != null && deleted > 0) {
+            log.info("Deleted {} outbox events published before {}", deleted, cutoff);
+        }
+    }
+
+    private int slot(long offset) {
+        return (int) (offset % ring.length);
+    }
+
+    private final class Subscriber {
+
+        private static final int PAGE_SIZE = 500;
+
+        private final SseEmitter emitter;
+
+        private final ReentrantLock sending = new ReentrantLock();
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile boolean pending;
+
+        private long lastSent;
+
+        private Subscriber(SseEmitter emitter, long after) {
+            this.emitter = emitter;
+            this.lastSent = after;
+        }
+
+        // At most one drain runs or is queued per subscriber
+        void wake() {
+            pending = true;
+            if (scheduled.compareAndSet(false, true)) {
+                dispatch(this::drain);
+            }
+        }
+
+        void heartbeat() {
+            dispatch(() -> send(SseEmitter.event().comment("keep-alive")));
+        }
+
+        private void drain() {
+            do {
+                pending = false;
+                sending.lock();
+                try {
+                    List<ChangeEvent> events;
+                    while (!(events = read(lastSent, PAGE_SIZE)).isEmpty()) {
+                        for (ChangeEvent event : events) {
+                            if (!send(SseEmitter.event()
+                                    .id(String.valueOf(event.getOffset()))
+                                    .name(event.getAggregateType() + "." + event.getType())
+                                    .data(event, MediaType.APPLICATION_JSON))) {
+                                return;
+                            }
+                            lastSent = event.getOffset();
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    emitter.completeWithError(e);
+                    return;
+                } finally {
+                    sending.unlock();
+                    scheduled.set(false);
+                }
+            } while (pending && scheduled.compareAndSet(false, true));
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            sending.lock();
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                // Client went away or the emitter already completed
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return false;
+            } finally {
+                sending.unlock();
+            }
+        }
+
+        private void dispatch(Runnable task) {
+            try {
+                dispatcher.execute(task);
+            } catch (RuntimeException e) {
+                // Shutting down
+                scheduled.set(false);
+            }
+        }
+    }
+}
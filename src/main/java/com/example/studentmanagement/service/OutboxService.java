@@ -0,0 +1,137 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.dto.ArchivedEnrollment;
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.example.studentmanagement.entity.Course;
+import com.example.studentmanagement.entity.OutboxEvent;
+import com.example.studentmanagement.entity.Student;
+import com.example.studentmanagement.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Appends change events to the outbox table. Every call joins the caller's transaction, so an
+ * event exists exactly when the change it describes was committed. {@link OutboxRelay} numbers
+ * and publishes the events; a commit that wrote any wakes it up instead of waiting for its poll.
+ *
+ * <p>The relay numbers events in commit order, not in event id order. Just before a transaction
+ * that wrote events commits, it increments the single-row {@code outbox_commit_order} counter and
+ * stamps its events with the value. The counter's row lock is held until the commit, so a later
+ * value always belongs to a later commit. The lock is taken after everything else is flushed, so
+ * it is held only briefly, and a transaction holding it never waits for another lock.
+ *
+ * <p>Deleting a student or course also deletes its enrollments. That is carried by the single
+ * student or course {@code deleted} event; no enrollment events are written for it. Enrollments
+ * moved to the archive get an enrollment {@code archived} event each: they are gone from the
+ * enrollments table but still part of the student's history.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    public static final String STUDENT = "student";
+    public static final String COURSE = "course";
+    public static final String ENROLLMENT = "enrollment";
+
+    public static final String CREATED = "created";
+    public static final String UPDATED = "updated";
+    public static final String DELETED = "deleted";
+    public static final String ARCHIVED = "archived";
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final OutboxRelay relay;
+
+    public void student(String type, Student student) {
+        append(STUDENT, String.valueOf(student.getStudentId()), type, student);
+    }
+
+    public void course(String type, Course course) {
+        append(COURSE, String.valueOf(course.getCourseId()), type, course);
+    }
+
+    public void enrollment(String type, EnrollmentRequest enrollment) {
+        append(ENROLLMENT, enrollment.getStudentId() + ":" + enrollment.getCourseId(), type, enrollment);
+    }
+
+    public void enrollmentDeleted(Integer studentId, Integer courseId) {
+        append(ENROLLMENT, studentId + ":" + courseId, DELETED, null);
+    }
+
+    public void enrollmentsArchived(Collection<ArchivedEnrollment> enrollments) {
+        enrollments.forEach(enrollment ->
+                append(ENROLLMENT, enrollment.getStudentId() + ":" + enrollment.getCourseId(), ARCHIVED, null));
+    }
+
+    public void studentsDeleted(Collection<Integer> studentIds) {
+        studentIds.forEach(id -> append(STUDENT, String.valueOf(id), DELETED, null));
+    }
+
+    public void coursesDeleted(Collection<Integer> courseIds) {
+        courseIds.forEach(id -> append(COURSE, String.valueOf(id), DELETED, null));
+    }
+
+    private void append(String aggregateType, String aggregateId, String type, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(type);
+        event.setPayload(payload == null ? null : toJson(payload));
+        event.setCreatedAt(LocalDateTime.now());
+        outboxEventRepository.save(event);
+        eventsOfTransaction().add(event.getId());
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Ids of the events written by the current transaction. The first event registers the
+    // synchronization that stamps them with the commit order and wakes the relay after the commit.
+    @SuppressWarnings("unchecked")
+    private List<Long> eventsOfTransaction() {
+        List<Long> ids = (List<Long>) TransactionSynchronizationManager.getResource(this);
+        if (ids != null) {
+            return ids;
+        }
+        List<Long> written = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, written);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Flushed first, so the commit has nothing left to write once the counter is locked
+                outboxEventRepository.flush();
+                outboxEventRepository.incrementCommitOrder();
+                outboxEventRepository.setCommitOrder(written, outboxEventRepository.findCommitOrder());
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(OutboxService.this);
+                if (status == STATUS_COMMITTED) {
+                    relay.wakeUp();
+                }
+            }
+        });
+        return written;
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.dto.ChangeEvent;
+import com.example.studentmanagement.dto.SearchHit;
+import com.example.studentmanagement.entity.Course;
+import com.example.studentmanagement.entity.Student;
+import com.example.studentmanagement.repository.CourseRepository;
+import com.example.studentmanagement.repository.StudentRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory prefix index over student names and emails and course names and codes, for
+ * type-ahead search without {@code LIKE '%x%'} scans.
+ *
+ * <p>Every term of a document is stored in its type's sorted set as {@code term \0 type:id}. A
+ * prefix query is a seek to the prefix followed by a short walk, so its cost depends on the number
+ * of hits returned, not on the number of students. A query for one type only walks that type's set.
+ *
+ * <p>Changes reach the index after their transaction commits, so rolled-back changes are never
+ * searchable. Local writes are applied from an after-commit hook, and every committed change,
+ * including those made by other instances, also arrives through the {@link OutboxRelay} change
+ * feed. The index is rebuilt from the database at startup while both keep coming in.
+ *
+ * <p>So the same row can reach the index several times and out of order. Each document keeps the
+ * row version it was built from, and an older version never replaces a newer one. Deleted keys
+ * are kept as tombstones, one small entry per row deleted since startup, because ids are never
+ * reused: a delete during the startup pass, or a late feed event for a deleted row, can't bring
+ * it back.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService {
+
+    static final String STUDENT = "student";
+
+    static final String COURSE = "course";
+
+    // Upper bound on documents a query may reject for its other words before it gives up
+    private static final int MAX_REJECTED = 10_000;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Map<String, ConcurrentSkipListSet<String>> postings = Map.of(
+            STUDENT, new ConcurrentSkipListSet<>(),
+            COURSE, new ConcurrentSkipListSet<>());
+
+    private final ConcurrentHashMap<String, Indexed> documents = new ConcurrentHashMap<>();
+
+    private final Set<String> tombstones = ConcurrentHashMap.newKeySet();
+
+    private final StudentRepository studentRepository;
+
+    private final CourseRepository courseRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OutboxRelay relay;
+
+    private final ObjectMapper objectMapper;
+
+    public void index(Student student) {
+        SearchHit hit = new SearchHit(STUDENT, student.getStudentId(),
+                student.getFirstName() + " " + student.getLastName(), student.getEmail(), student.getVersion());
+        afterCommit(() -> put(hit));
+    }
+
+    public void index(Course course) {
+        SearchHit hit = new SearchHit(COURSE, course.getCourseId(), course.getCourseName(), course.getCourseCode(),
+                course.getVersion());
+        afterCommit(() -> put(hit));
+    }
+
+    public void removeStudents(Collection<Integer> studentIds) {
+        List<Integer> ids = List.copyOf(studentIds);
+        afterCommit(() -> ids.forEach(id -> remove(key(STUDENT, id))));
+    }
+
+    public void removeCourses(Collection<Integer> courseIds) {
+        List<Integer> ids = List.copyOf(courseIds);
+        afterCommit(() -> ids.forEach(id -> remove(key(COURSE, id))));
+    }
+
+    /**
+     * Documents matching every word of the query as a prefix of one of their terms, e.g.
+     * "jan smi" finds Jane Smith. {@code type} restricts the results to students or courses.
+     */
+    public List<SearchHit> search(String query, String type, int limit) {
+        List<String> words = terms(query);
+        if (words.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // Walk the postings of the longest word, the most selective one; check the others per document
+        String seek = words.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        List<Iterator<String>> walks = new ArrayList<>();
+        for (Map.Entry<String, ConcurrentSkipListSet<String>> typed : postings.entrySet()) {
+            if (type == null || type.equals(typed.getKey())) {
+                walks.add(typed.getValue().subSet(seek, seek + '\uffff').iterator());
+            }
+        }
+        Set<String> seen = new HashSet<>();
+        List<SearchHit> hits = new ArrayList<>(limit);
+        int rejected = 0;
+        for (Iterator<String> walk = merged(walks); walk.hasNext() && hits.size() < limit; ) {
+            String posting = walk.next();
+            String key = posting.substring(posting.indexOf('\0') + 1);
+            if (!seen.add(key)) {
+                continue;
+            }
+            Indexed indexed = documents.get(key);
+            if (indexed == null) {
+                continue;
+            }
+            if (matchesAll(indexed.terms(), words)) {
+                hits.add(indexed.hit());
+            } else if (++rejected >= MAX_REJECTED) {
+                break;
+            }
+        }
+        return hits;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexOnStartup() {
+        relay.addListener(this::apply);
+        // In the background so the application serves traffic while the index fills up
+        Thread.ofPlatform().name("search-mass-indexer").daemon().start(() -> {
+            long started = System.nanoTime();
+            try {
+                int indexed = massIndex();
+                log.info("Search index built: {} documents in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+            } catch (RuntimeException e) {
+                log.error("Building the search index failed", e);
+            }
+        });
+    }
+
+    // Streams both tables as projections. Newer versions indexed by live writes meanwhile are
+    // kept, and rows deleted meanwhile stay deleted.
+    public int massIndex() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        Integer indexed = readOnly.execute(status -> {
+            int count = 0;
+            try (Stream<SearchHit> students = studentRepository.streamSearchHits()) {
+                count += students.mapToInt(hit -> put(hit) ? 1 : 0).sum();
+            }
+            try (Stream<SearchHit> courses = courseRepository.streamSearchHits()) {
+                count += courses.mapToInt(hit -> put(hit) ? 1 : 0).sum();
+            }
+            return count;
+        });
+        return indexed != null ? indexed : 0;
+    }
+
+    // Committed changes from every instance, in commit order
+    private void apply(List<ChangeEvent> events) {
+        for (ChangeEvent event : events) {
+            String type = event.getAggregateType();
+            if (!STUDENT.equals(type) && !COURSE.equals(type)) {
+                continue;
+            }
+            if (OutboxService.DELETED.equals(event.getType())) {
+                remove(type + ':' + event.getAggregateId());
+            } else if (event.getPayload() != null) {
+                put(hit(type, event.getPayload()));
+            }
+        }
+    }
+
+    private SearchHit hit(String type, String payload) {
+        JsonNode row;
+        try {
+            row = objectMapper.readTree(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        Long version = row.path("version").isNumber() ? row.path("version").asLong() : null;
+        if (STUDENT.equals(type)) {
+            return new SearchHit(STUDENT, row.path("studentId").asInt(),
+                    row.path("firstName").asText(null) + " " + row.path("lastName").asText(null),
+                    row.path("email").asText(null), version);
+        }
+        return new SearchHit(COURSE, row.path("courseId").asInt(), row.path("courseName").asText(null),
+                row.path("courseCode").asText(null), version);
+    }
+
+    // False if the document is deleted or already indexed from a newer version
+    private boolean put(SearchHit hit) {
+        Indexed indexed = new Indexed(hit, documentTerms(hit));
+        boolean[] applied = new boolean[1];
+        documents.compute(key(hit.getType(), hit.getId()), (key, previous) -> {
+            if (tombstones.contains(key) || previous != null && previous.version() > indexed.version()) {
+                return previous;
+            }
+            if (previous != null) {
+                removePostings(key, previous);
+            }
+            addPostings(key, indexed);
+            applied[0] = true;
+            return indexed;
+        });
+        return applied[0];
+    }
+
+    // The tombstone goes first, so a put racing with the removal can't slip in after it
+    private void remove(String key) {
+        tombstones.add(key);
+        documents.computeIfPresent(key, (k, previous) -> {
+            removePostings(k, previous);
+            return null;
+        });
+    }
+
+    private void addPostings(String key, Indexed indexed) {
+        ConcurrentSkipListSet<String> typed = postings.get(indexed.hit().getType());
+        for (String term : indexed.terms()) {
+            typed.add(term + '\0' + key);
+        }
+    }
+
+    private void removePostings(String key, Indexed indexed) {
+        ConcurrentSkipListSet<String> typed = postings.get(indexed.hit().getType());
+        for (String term : indexed.terms()) {
+            typed.remove(term + '\0' + key);
+        }
+    }
+
+    private static boolean matchesAll(Set<String> terms, List<String> words) {
+        return words.stream().allMatch(word -> terms.stream().anyMatch(term -> term.startsWith(word)));
+    }
+
+    private static Set<String> documentTerms(SearchHit hit) {
+        Set<String> terms = new HashSet<>(terms(hit.getTitle()));
+        terms.addAll(terms(hit.getDetail()));
+        return Set.copyOf(terms);
+    }
+
+    // Merges sorted walks into one sorted walk, so results of both types interleave by term
+    private static Iterator<String> merged(List<Iterator<String>> walks) {
+        if (walks.size() == 1) {
+            return walks.get(0);
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(Comparator.comparing(Head::posting));
+        for (Iterator<String> walk : walks) {
+            if (walk.hasNext()) {
+                heads.add(new Head(walk.next(), walk));
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public String next() {
+                Head head = heads.remove();
+                if (head.rest().hasNext()) {
+                    heads.add(new Head(head.rest().next(), head.rest()));
+                }
+                return head.posting();
+            }
+        };
+    }
+
+    private static List<String> terms(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(NON_WORD.split(text.toLowerCase(Locale.ROOT)))
+                .filter(term -> !term.isEmpty())
+                .toList();
+    }
+
+    private static String key(String type, Integer id) {
+        return type + ':' + id;
+    }
+
+    // A document with its terms, tokenized once when it is indexed
+    private record Indexed(SearchHit hit, Set<String> terms) {
+
+        long version() {
+            return hit.getVersion() != null ? hit.getVersion() : 0;
+        }
+    }
+
+    private record Head(String posting, Iterator<String> rest) {
+    }
+
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+}
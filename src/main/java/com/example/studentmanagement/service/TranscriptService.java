@@ -0,0 +1,132 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.dto.ArchivedEnrollment;
+import com.example.studentmanagement.dto.Transcript;
+import com.example.studentmanagement.dto.TranscriptCourse;
+import com.example.studentmanagement.entity.Course;
+import com.example.studentmanagement.entity.Enrollment;
+import com.example.studentmanagement.entity.Student;
+import com.example.studentmanagement.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds student transcripts: the student, every enrolled course with its grade, and credit
+ * totals and GPA computed in a single pass over the courses. Enrollments moved to the archive
+ * by {@link EnrollmentArchiveService} are merged in, so a transcript always covers every term.
+ *
+ * <p>Students are loaded through the {@code Student.transcript} entity graph, so one student or a
+ * whole cohort costs one select per {@value #CHUNK_SIZE} ids instead of one per enrollment, plus
+ * one for their archives.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class TranscriptService {
+
+    // Keeps the IN list within what the database plans well
+    static final int CHUNK_SIZE = 500;
+
+    // Four-point letter scale; other grades (P, W, I, ...) don't enter the GPA
+    private static final Map<String, BigDecimal> GRADE_POINTS = Map.ofEntries(
+            Map.entry("A+", new BigDecimal("4.0")),
+            Map.entry("A", new BigDecimal("4.0")),
+            Map.entry("A-", new BigDecimal("3.7")),
+            Map.entry("B+", new BigDecimal("3.3")),
+            Map.entry("B", new BigDecimal("3.0")),
+            Map.entry("B-", new BigDecimal("2.7")),
+            Map.entry("C+", new BigDecimal("2.3")),
+            Map.entry("C", new BigDecimal("2.0")),
+            Map.entry("C-", new BigDecimal("1.7")),
+            Map.entry("D+", new BigDecimal("1.3")),
+            Map.entry("D", new BigDecimal("1.0")),
+            Map.entry("D-", new BigDecimal("0.7")),
+            Map.entry("F", BigDecimal.ZERO));
+
+    private static final Comparator<TranscriptCourse> COURSE_ORDER = Comparator
+            .comparing(TranscriptCourse::getEnrollmentDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(TranscriptCourse::getCourseCode, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final StudentRepository studentRepository;
+
+    private final EnrollmentArchiveService archiveService;
+
+    public Optional<Transcript> getTranscript(Integer studentId) {
+        return studentRepository.findTranscriptById(studentId)
+                .map(student -> toTranscript(student, archiveService.findByStudent(studentId)));
+    }
+
+    // In the order requested; unknown ids are left out
+    public List<Transcript> getTranscripts(Collection<Integer> studentIds) {
+        List<Integer> ids = new ArrayList<>(new LinkedHashSet<>(studentIds));
+        ids.removeIf(Objects::isNull);
+        List<Transcript> transcripts = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            Map<Integer, Student> students = studentRepository.findTranscriptsByIds(chunk).stream()
+                    .collect(Collectors.toMap(Student::getStudentId, Function.identity()));
+            Map<Integer, List<ArchivedEnrollment>> archived = archiveService.findByStudents(students.keySet());
+            for (Integer id : chunk) {
+                Student student = students.get(id);
+                if (student != null) {
+                    transcripts.add(toTranscript(student, archived.getOrDefault(id, List.of())));
+                }
+            }
+        }
+        return transcripts;
+    }
+
+    static Transcript toTranscript(Student student, List<ArchivedEnrollment> archived) {
+        List<TranscriptCourse> courses = new ArrayList<>(student.getEnrollments().size() + archived.size());
+        for (Enrollment enrollment : student.getEnrollments()) {
+            Course course = enrollment.getCourse();
+            courses.add(new TranscriptCourse(course.getCourseId(), course.getCourseCode(), course.getCourseName(),
+                    course.getCredits(), enrollment.getEnrollmentDate(), enrollment.getGrade(),
+                    gradePoints(enrollment.getGrade())));
+        }
+        for (ArchivedEnrollment enrollment : archived) {
+            courses.add(new TranscriptCourse(enrollment.getCourseId(), enrollment.getCourseCode(),
+                    enrollment.getCourseName(), enrollment.getCredits(), enrollment.getEnrollmentDate(),
+                    enrollment.getGrade(), gradePoints(enrollment.getGrade())));
+        }
+
+        int attempted = 0;
+        int graded = 0;
+        int earned = 0;
+        BigDecimal qualityPoints = BigDecimal.ZERO;
+        for (TranscriptCourse course : courses) {
+            int credits = course.getCredits() == null ? 0 : course.getCredits();
+            BigDecimal points = course.getGradePoints();
+            attempted += credits;
+            if (points != null) {
+                graded += credits;
+                qualityPoints = qualityPoints.add(points.multiply(BigDecimal.valueOf(credits)));
+                if (points.signum() > 0) {
+                    earned += credits;
+                }
+            }
+        }
+        courses.sort(COURSE_ORDER);
+        BigDecimal gpa = graded == 0 ? null : qualityPoints.divide(BigDecimal.valueOf(graded), 2, RoundingMode.HALF_UP);
+        return new Transcript(student.getStudentId(), student.getFirstName(), student.getLastName(),
+                student.getEmail(), attempted, graded, earned, gpa, courses);
+    }
+
+    static BigDecimal gradePoints(String grade) {
+        return grade == null ? null : GRADE_POINTS.get(grade.trim().toUpperCase());
+    }
+}
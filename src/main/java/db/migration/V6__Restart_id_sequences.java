@@ -0,0 +1,48 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Creates the student and course id sequences, which replace the IDENTITY columns of the V1
+ * baseline, and moves them past the ids already in use. Rows inserted through the IDENTITY
+ * columns would otherwise collide with the first ids the sequences hand out.
+ *
+ * <p>Hibernate's pooled optimizer treats a sequence value as the top of a block of 50 ids, so the
+ * sequence restarts at {@code max(id) + 50} and the first block begins at {@code max(id) + 1}. A
+ * sequence that is already further along keeps its position.
+ */
+public class V6__Restart_id_sequences extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        try (Statement statement = context.getConnection().createStatement()) {
+            restart(statement, "students_seq", "students", "student_id");
+            restart(statement, "courses_seq", "courses", "course_id");
+        }
+    }
+
+    private static void restart(Statement statement, String sequence, String table, String idColumn)
+            throws SQLException {
+        long maxId;
+        try (ResultSet rs = statement.executeQuery("select coalesce(max(" + idColumn + "), 0) from " + table)) {
+            rs.next();
+            maxId = rs.getLong(1);
+        }
+        statement.execute("create sequence if not exists " + sequence
+                + " start with 1 increment by " + ALLOCATION_SIZE);
+        long next;
+        try (ResultSet rs = statement.executeQuery("select next value for " + sequence)) {
+            rs.next();
+            next = rs.getLong(1);
+        }
+        // Never moves a sequence backwards, so blocks already handed out stay unique
+        statement.execute("alter sequence " + sequence + " restart with " + Math.max(next, maxId + ALLOCATION_SIZE));
+    }
+}
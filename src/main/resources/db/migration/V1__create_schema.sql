@@ -0,0 +1,32 @@
+-- Baseline schema, exactly what ddl-auto: update created from the original entities. Existing
+-- databases are baselined at this version and skip it, so every later column, index, sequence
+-- and table belongs in a later migration.
+
+create table students (
+    student_id integer generated by default as identity,
+    first_name varchar(50) not null,
+    last_name varchar(50) not null,
+    email varchar(100),
+    enrollment_date date,
+    constraint pk_students primary key (student_id),
+    constraint uk_students_email unique (email)
+);
+
+create table courses (
+    course_id integer generated by default as identity,
+    course_name varchar(100) not null,
+    course_code varchar(20),
+    credits integer,
+    constraint pk_courses primary key (course_id),
+    constraint uk_courses_course_code unique (course_code)
+);
+
+create table enrollments (
+    student_id integer not null,
+    course_id integer not null,
+    enrollment_date date,
+    grade varchar(2),
+    constraint pk_enrollments primary key (student_id, course_id),
+    constraint fk_enrollments_student foreign key (student_id) references students (student_id),
+    constraint fk_enrollments_course foreign key (course_id) references courses (course_id)
+);
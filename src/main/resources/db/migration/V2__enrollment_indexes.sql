@@ -0,0 +1,12 @@
+-- The primary key (student_id, course_id) only serves lookups by student. Course rosters get
+-- their own index led by course_id. Both indexes also carry the enrollment columns the DTO
+-- listings read, so those listings never need a row lookup.
+
+-- Roster: findById_CourseId, findDTOsByCourseId and the course keyset page (course_id, then student_id)
+create index idx_enrollments_roster on enrollments (course_id, student_id, enrollment_date, grade);
+
+-- Transcript: findById_StudentId, findDTOsByStudentId and the student keyset page
+create index idx_enrollments_transcript on enrollments (student_id, course_id, enrollment_date, grade);
+
+-- Date range filters and reports
+create index idx_enrollments_enrollment_date on enrollments (enrollment_date);
@@ -0,0 +1,16 @@
+-- Enrollment counts per course, month and grade, kept current by the enrollment write paths
+-- so analytics never scan enrollments. Undated and ungraded enrollments use '' so that
+-- every bucket has a real primary key.
+create table enrollment_summaries (
+    course_id integer not null,
+    period varchar(7) not null,
+    grade varchar(2) not null,
+    enrollment_count bigint not null,
+    constraint pk_enrollment_summaries primary key (course_id, period, grade),
+    constraint fk_enrollment_summaries_course foreign key (course_id) references courses (course_id)
+);
+
+insert into enrollment_summaries (course_id, period, grade, enrollment_count)
+select e.course_id, coalesce(formatdatetime(e.enrollment_date, 'yyyy-MM'), ''), coalesce(e.grade, ''), count(*)
+from enrollments e
+group by e.course_id, coalesce(formatdatetime(e.enrollment_date, 'yyyy-MM'), ''), coalesce(e.grade, '');
@@ -0,0 +1,16 @@
+-- Change events written in the same transaction as the entity changes they describe.
+-- event_offset stays null until the relay publishes the event; the relay numbers events
+-- consecutively in publication order, so consumers can resume from the last offset they saw.
+create sequence outbox_events_seq start with 1 increment by 50;
+
+create table outbox_events (
+    event_id bigint not null,
+    event_offset bigint,
+    aggregate_type varchar(20) not null,
+    aggregate_id varchar(40) not null,
+    event_type varchar(20) not null,
+    payload varchar(4000),
+    created_at timestamp(6) not null,
+    constraint pk_outbox_events primary key (event_id),
+    constraint uk_outbox_events_offset unique (event_offset)
+);
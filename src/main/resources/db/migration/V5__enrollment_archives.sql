@@ -0,0 +1,18 @@
+-- Cold tier for enrollments of completed terms. Each row holds the enrollments one student had
+-- archived in one run, as gzip-compressed JSON with the course columns copied in, so archived
+-- history doesn't depend on the course still existing. Rows are only inserted and deleted.
+create sequence enrollment_archives_seq start with 1 increment by 50;
+
+create table enrollment_archives (
+    archive_id bigint not null,
+    student_id integer not null,
+    row_count integer not null,
+    archived_before date not null,
+    payload blob not null,
+    created_at timestamp(6) not null,
+    constraint pk_enrollment_archives primary key (archive_id),
+    constraint fk_enrollment_archives_student foreign key (student_id) references students (student_id)
+);
+
+-- Transcripts and history read every archive of a student or a cohort
+create index idx_enrollment_archives_student on enrollment_archives (student_id);
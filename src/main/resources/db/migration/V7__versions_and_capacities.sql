@@ -0,0 +1,11 @@
+-- Columns added after the baseline. Existing rows start at version 0, and courses without a
+-- capacity stay unlimited. The student and course id sequences come from V6, the seat
+-- counters from V8.
+
+alter table students add column version bigint default 0 not null;
+
+alter table courses add column capacity integer;
+
+alter table courses add column version bigint default 0 not null;
+
+alter table enrollments add column version bigint default 0 not null;
@@ -0,0 +1,12 @@
+-- Seats taken per course. Kept out of courses so that registrations neither evict the cached
+-- course rows nor bump their version. Existing courses start from their current enrollments.
+create table course_seats (
+    course_id integer not null,
+    enrollment_count integer default 0 not null,
+    constraint pk_course_seats primary key (course_id),
+    constraint fk_course_seats_course foreign key (course_id) references courses (course_id) on delete cascade
+);
+
+insert into course_seats (course_id, enrollment_count)
+select c.course_id, (select count(*) from enrollments e where e.course_id = c.course_id)
+from courses c;
@@ -0,0 +1,16 @@
+-- Order in which outbox events committed. Event ids come from a pooled sequence and follow the
+-- order events were written, not committed. Each writing transaction takes the next value of
+-- the single-row counter just before it commits and holds the row lock until then, so values
+-- increase in commit order. The relay numbers events by it.
+create table outbox_commit_order (
+    id integer not null,
+    last_order bigint not null,
+    constraint pk_outbox_commit_order primary key (id)
+);
+
+insert into outbox_commit_order (id, last_order) values (1, 0);
+
+alter table outbox_events add column commit_order bigint;
+
+-- Events still waiting for the relay committed before any that will be ordered from now on
+update outbox_events set commit_order = 0 where event_offset is null;
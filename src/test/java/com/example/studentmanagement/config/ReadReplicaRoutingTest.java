@@ -0,0 +1,44 @@
+package com.example.studentmanagement.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two local H2 databases stand in for the primary and its replica
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "app.datasource.replica.username=sa"
+})
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void readOnlyTransactions_shouldUseReplica() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        String database = readOnly.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+
+        assertThat(database).containsIgnoringCase("routing-replica");
+    }
+
+    @Test
+    public void readWriteTransactions_shouldUsePrimary() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+
+        String database = readWrite.execute(status -> jdbcTemplate.queryForObject("select database()", String.class));
+
+        assertThat(database).containsIgnoringCase("routing-primary");
+    }
+}
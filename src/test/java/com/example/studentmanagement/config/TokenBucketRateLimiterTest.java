@@ -0,0 +1,54 @@
+package com.example.studentmanagement.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+
+    // 10 tokens per second, at most 5 at once
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 5, now::get);
+
+    @Test
+    public void tryAcquire_shouldAllowTheBurstThenAskToWait() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("client", 1)).isZero();
+        }
+
+        assertThat(limiter.tryAcquire("client", 1)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void tryAcquire_shouldRefillOverTime() {
+        assertThat(limiter.tryAcquire("client", 5)).isZero();
+        assertThat(limiter.tryAcquire("client", 1)).isPositive();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertThat(limiter.tryAcquire("client", 2)).isZero();
+        assertThat(limiter.tryAcquire("client", 1)).isPositive();
+    }
+
+    @Test
+    public void tryAcquire_shouldKeepClientsApart() {
+        assertThat(limiter.tryAcquire("heavy", 5)).isZero();
+
+        assertThat(limiter.tryAcquire("light", 1)).isZero();
+    }
+
+    @Test
+    public void refund_shouldReturnTheTokens() {
+        assertThat(limiter.tryAcquire("client", 5)).isZero();
+        assertThat(limiter.tryAcquire("client", 1)).isPositive();
+
+        limiter.refund("client", 2);
+
+        assertThat(limiter.tryAcquire("client", 2)).isZero();
+        assertThat(limiter.tryAcquire("client", 1)).isPositive();
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.config.AdmissionControlFilter;
+import com.example.studentmanagement.config.AdmissionControlProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The filter in front of a stub controller whose handlers can be held open, so the endpoint
+// classes can be saturated on purpose. Every client has one listing's worth of spare tokens.
+public class AdmissionControlFilterTest {
+
+    private static final String KEY_HEADER = "X-API-Key";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private StubController controller;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() {
+        AdmissionControlProperties properties = new AdmissionControlProperties();
+        properties.setApiKeys(Set.of("rate", "listings", "writes", "streams", "streams-2", "streams-3"));
+        // Practically no refill, so every token a test gets back was refunded
+        properties.setRatePerSecond(0.01);
+        properties.setBurst(10);
+        properties.setLookupPatterns(List.of("/api/stub/{id}"));
+        properties.setStreamPatterns(List.of("/api/stub/export"));
+        properties.setListings(new AdmissionControlProperties.EndpointClass(1, 1, 1, Duration.ofSeconds(10), 5));
+        properties.setStreams(new AdmissionControlProperties.EndpointClass(2, 1, 2, Duration.ofMillis(500), 5));
+        controller = new StubController();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .addFilters(new AdmissionControlFilter(properties, registry))
+                .build();
+    }
+
+    @Test
+    public void clientOverItsRate_shouldGet429WithRetryAfter() throws Exception {
+        mockMvc.perform(get("/api/stub").header(KEY_HEADER, "rate")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/stub").header(KEY_HEADER, "rate")).andExpect(status().isOk());
+
+        MvcResult rejected = mockMvc.perform(get("/api/stub").header(KEY_HEADER, "rate"))
+                .andExpect(status().isTooManyRequests())
+                .andReturn();
+        // Five tokens at 0.01 per second
+        assertThat(Long.parseLong(rejected.getResponse().getHeader(HttpHeaders.RETRY_AFTER))).isGreaterThan(100);
+    }
+
+    @Test
+    public void saturatedListings_shouldGet503AndKeepTheirTokens() throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(1)) {
+            Future<?> held = executor.submit(() -> {
+                mockMvc.perform(get("/api/stub").param("hold", "true").header(KEY_HEADER, "listings"))
+                        .andExpect(status().isOk());
+                return null;
+            });
+            assertThat(controller.entered.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // Without the refunds the second one would already be out of tokens
+            for (int i = 0; i < 2; i++) {
+                mockMvc.perform(get("/api/stub").header(KEY_HEADER, "listings"))
+                        .andExpect(status().isServiceUnavailable())
+                        .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+            }
+            // Writes have their own slots
+            mockMvc.perform(post("/api/stub").header(KEY_HEADER, "writes")).andExpect(status().isCreated());
+
+            controller.release.countDown();
+            held.get();
+        }
+        mockMvc.perform(get("/api/stub").header(KEY_HEADER, "listings")).andExpect(status().isOk());
+    }
+
+    @Test
+    public void openStreams_shouldHoldStreamSlotsButNotShrinkTheLimit() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/stub/export").header(KEY_HEADER, "streams"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult second = mockMvc.perform(get("/api/stub/export").header(KEY_HEADER, "streams-2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(get("/api/stub/export").header(KEY_HEADER, "streams-3"))
+                .andExpect(status().isServiceUnavailable());
+        // The streams don't take listing slots
+        mockMvc.perform(get("/api/stub").header(KEY_HEADER, "streams")).andExpect(status().isOk());
+
+        // Each body takes far longer than the latency target to write
+        Thread.sleep(1000);
+        controller.release.countDown();
+        mockMvc.perform(asyncDispatch(first)).andExpect(status().isOk());
+        mockMvc.perform(asyncDispatch(second)).andExpect(status().isOk());
+
+        assertThat(gauge("http.server.admission.in.flight", "stream")).isZero();
+        assertThat(gauge("http.server.admission.limit", "stream")).isEqualTo(2);
+    }
+
+    private double gauge(String name, String endpointClass) {
+        return registry.get(name).tag("class", endpointClass).gauge().value();
+    }
+
+    @RestController
+    @RequestMapping("/api/stub")
+    static class StubController {
+
+        final CountDownLatch entered = new CountDownLatch(1);
+
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @GetMapping
+        public String list(@RequestParam(defaultValue = "false") boolean hold) throws InterruptedException {
+            if (hold) {
+                entered.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return "[]";
+        }
+
+        @PostMapping
+        public ResponseEntity<Void> write() {
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        }
+
+        @GetMapping("/export")
+        public StreamingResponseBody export() {
+            return out -> {
+                out.write("{}\n".getBytes());
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.studentmanagement.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// An install created by the original ddl-auto schema must start: Flyway baselines it at V1,
+// the later migrations add everything since, and schema validation passes.
+@SpringBootTest(properties = {
+        "app.outbox.relay-enabled=false",
+        "app.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+public class BaselineSchemaUpgradeTest {
+
+    private static final String URL = "jdbc:h2:mem:baseline-upgrade;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Runs before the application context, and so before Flyway, touches the database
+    @DynamicPropertySource
+    static void baselineDatabase(DynamicPropertyRegistry registry) {
+        new ResourceDatabasePopulator(new ClassPathResource("db/baseline-schema.sql"))
+                .execute(new DriverManagerDataSource(URL, "sa", ""));
+        registry.add("spring.datasource.url", () -> URL);
+    }
+
+    @Test
+    public void existingDatabase_shouldBeBaselinedAndMigrated() {
+        List<Map<String, Object>> history = jdbcTemplate.queryForList(
+                "select version, success from flyway_schema_history where version is not null order by installed_rank");
+        assertThat(history.get(0).get("VERSION")).isEqualTo("1");
+        assertThat(history).allSatisfy(row -> assertThat(row.get("SUCCESS")).isEqualTo(true));
+        assertThat(history).extracting(row -> row.get("VERSION")).contains("8");
+    }
+
+    @Test
+    public void existingRows_shouldBeServedWithVersions() throws Exception {
+        mockMvc.perform(get("/api/students/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+        mockMvc.perform(get("/api/enrollments/student/1/course/2"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void existingEnrollments_shouldBeCountedAsTakenSeats() throws Exception {
+        assertThat(seatsTaken(1)).isEqualTo(2);
+        assertThat(seatsTaken(2)).isEqualTo(1);
+    }
+
+    @Test
+    public void newRows_shouldGetIdsPastTheExistingOnes() throws Exception {
+        String response = mockMvc.perform(post("/api/students")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("firstName", "New", "lastName", "Student",
+                                "email", "new@legacy.example"))))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode student = objectMapper.readTree(response);
+
+        assertThat(student.get("studentId").asInt()).isGreaterThan(2);
+    }
+
+    private int seatsTaken(int courseId) throws Exception {
+        String response = mockMvc.perform(get("/api/courses/" + courseId + "/enrollment-count"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response).get("enrollmentCount").asInt();
+    }
+}
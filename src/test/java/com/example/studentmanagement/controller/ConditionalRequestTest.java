@@ -0,0 +1,96 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// ETags come from @Version: If-None-Match answers 304 while the version is unchanged, and a
+// write with a stale If-Match is refused with 412 instead of overwriting the newer row.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional-requests;DB_CLOSE_DELAY=-1",
+        "app.outbox.relay-enabled=false"
+})
+@AutoConfigureMockMvc
+public class ConditionalRequestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void student_shouldAnswer304WhileUnchangedAnd412ForAStaleIfMatch() throws Exception {
+        MvcResult created = send(post("/api/students"), Map.of("firstName", "Etta", "lastName", "Tag",
+                "email", "etag@example.com"), 201);
+        Integer id = objectMapper.readTree(created.getResponse().getContentAsString()).get("studentId").asInt();
+        String etag = created.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/api/students/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        MvcResult updated = send(put("/api/students/" + id).header(HttpHeaders.IF_MATCH, etag),
+                Map.of("firstName", "Etta", "lastName", "Renamed", "email", "etag@example.com"), 200);
+        String newEtag = updated.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotEqualTo(etag);
+
+        // A second writer still holding the first version loses
+        send(put("/api/students/" + id).header(HttpHeaders.IF_MATCH, etag),
+                Map.of("firstName", "Lost", "lastName", "Update", "email", "etag@example.com"), 412);
+        mockMvc.perform(get("/api/students/" + id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, newEtag));
+        mockMvc.perform(get("/api/students/" + id).header(HttpHeaders.IF_NONE_MATCH, newEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    public void enrollment_shouldAnswer304WhileUnchangedAnd412ForAStaleIfMatch() throws Exception {
+        Integer studentId = objectMapper.readTree(send(post("/api/students"), Map.of("firstName", "Enid",
+                "lastName", "Tag", "email", "enrollment-etag@example.com"), 201).getResponse().getContentAsString())
+                .get("studentId").asInt();
+        Integer courseId = objectMapper.readTree(send(post("/api/courses"), Map.of("courseName", "Caching",
+                "courseCode", "ET1", "credits", 3), 201).getResponse().getContentAsString())
+                .get("courseId").asInt();
+        EnrollmentRequest request = new EnrollmentRequest(studentId, courseId, LocalDate.of(2025, 9, 1), null);
+        String etag = send(post("/api/enrollments"), request, 201).getResponse().getHeader(HttpHeaders.ETAG);
+        String path = "/api/enrollments/student/" + studentId + "/course/" + courseId;
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+
+        request.setGrade("A");
+        String graded = send(put(path).header(HttpHeaders.IF_MATCH, etag), request, 200)
+                .getResponse().getHeader(HttpHeaders.ETAG);
+        request.setGrade("F");
+        send(put(path).header(HttpHeaders.IF_MATCH, etag), request, 412);
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, graded)).andExpect(status().isNotModified());
+    }
+
+    private MvcResult send(MockHttpServletRequestBuilder request,
+                           Object body, int expectedStatus) throws Exception {
+        return mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().is(expectedStatus))
+                .andReturn();
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.example.studentmanagement.entity.Student;
+import com.example.studentmanagement.repository.CourseSeatRepository;
+import com.example.studentmanagement.repository.EnrollmentRepository;
+import com.example.studentmanagement.repository.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Registrations racing for the last seats of one course: the conditional seat UPDATE must let
+// exactly capacity of them through, however they interleave. Taking seats leaves the course
+// itself, and so its ETag, unchanged.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:course-capacity;DB_CLOSE_DELAY=-1",
+        "app.outbox.relay-enabled=false",
+        "app.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+public class CourseCapacityConcurrencyTest {
+
+    private static final int CAPACITY = 5;
+    private static final int REGISTRATIONS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseSeatRepository courseSeatRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Test
+    public void parallelRegistrations_shouldFillTheCourseExactlyToCapacity() throws Exception {
+        String created = mockMvc.perform(post("/api/courses")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("courseName", "Small seminar",
+                                "courseCode", "CAP1", "credits", 3, "capacity", CAPACITY))))
+                .andReturn().getResponse().getContentAsString();
+        Integer courseId = objectMapper.readTree(created).get("courseId").asInt();
+        String eTag = courseETag(courseId);
+        List<Integer> studentIds = new ArrayList<>();
+        for (int s = 0; s < REGISTRATIONS; s++) {
+            Student student = new Student();
+            student.setFirstName("First" + s);
+            student.setLastName("Last" + s);
+            student.setEmail("capacity" + s + "@example.com");
+            studentIds.add(studentRepository.save(student).getStudentId());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(REGISTRATIONS)) {
+            for (Integer studentId : studentIds) {
+                String body = objectMapper.writeValueAsString(
+                        new EnrollmentRequest(studentId, courseId, LocalDate.of(2025, 9, 1), null));
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/enrollments")
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+        }
+
+        int registered = 0;
+        int conflicts = 0;
+        for (Future<Integer> response : responses) {
+            int status = response.get();
+            if (status == 201) {
+                registered++;
+            } else if (status == 409) {
+                conflicts++;
+            }
+        }
+        assertThat(registered).isEqualTo(CAPACITY);
+        assertThat(conflicts).isEqualTo(REGISTRATIONS - CAPACITY);
+        assertThat(courseSeatRepository.findEnrollmentCount(courseId).orElseThrow().getEnrollmentCount())
+                .isEqualTo(CAPACITY);
+        assertThat(enrollmentRepository.findById_CourseId(courseId)).hasSize(CAPACITY);
+        assertThat(courseETag(courseId)).isEqualTo(eTag);
+    }
+
+    private String courseETag(Integer courseId) throws Exception {
+        return mockMvc.perform(get("/api/courses/" + courseId))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
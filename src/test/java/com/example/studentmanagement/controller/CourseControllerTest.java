@@ -2,6 +2,10 @@ package com.example.studentmanagement.controller;
 
 import com.example.studentmanagement.entity.Course;
 import com.example.studentmanagement.repository.CourseRepository;
+import com.example.studentmanagement.repository.CourseSeatRepository;
+import com.example.studentmanagement.service.CascadeDeleteService;
+import com.example.studentmanagement.service.OutboxService;
+import com.example.studentmanagement.service.SearchIndexService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +33,18 @@ public class CourseControllerTest {
     @MockitoBean
     private CourseRepository courseRepository;
 
+    @MockitoBean
+    private CourseSeatRepository courseSeatRepository;
+
+    @MockitoBean
+    private CascadeDeleteService cascadeDeleteService;
+
+    @MockitoBean
+    private SearchIndexService searchIndexService;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
     @Test
     public void createCourse_shouldReturnCreatedCourseAndStatus201() throws Exception {
         // 1. Setup the input Course object (without ID as it's generated)
@@ -37,6 +53,8 @@ public class CourseControllerTest {
                 "Introduction to Computer Science",
                 "CS101",
                 3,
+                null, // Capacity
+                null, // Version
                 null // Enrollments list
         );
 
@@ -46,6 +64,8 @@ public class CourseControllerTest {
                 "Introduction to Computer Science",
                 "CS101",
                 3,
+                null,
+                0L,
                 null
         );
 
@@ -0,0 +1,101 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:enrollment-archive;DB_CLOSE_DELAY=-1",
+        "app.outbox.relay-enabled=false"
+})
+@AutoConfigureMockMvc
+public class EnrollmentArchiveTest {
+
+    private static final LocalDate OLD_TERM = LocalDate.of(2019, 9, 2);
+    private static final LocalDate CURRENT_TERM = LocalDate.of(2025, 9, 1);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void archive_shouldMoveOldGradedEnrollmentsAndKeepThemInTranscripts() throws Exception {
+        List<Integer> courseIds = new ArrayList<>();
+        for (int c = 0; c < 4; c++) {
+            courseIds.add(create("/api/courses", Map.of("courseName", "Course " + c, "courseCode", "AR" + c, "credits", 3))
+                    .get("courseId").asInt());
+        }
+        int studentId = create("/api/students", Map.of("firstName", "Ada", "lastName", "Archive",
+                "email", "archived@example.com")).get("studentId").asInt();
+        create("/api/enrollments", new EnrollmentRequest(studentId, courseIds.get(0), OLD_TERM, "A"));
+        create("/api/enrollments", new EnrollmentRequest(studentId, courseIds.get(1), OLD_TERM, "B"));
+        // Ungraded and current enrollments stay in the enrollments table
+        create("/api/enrollments", new EnrollmentRequest(studentId, courseIds.get(2), OLD_TERM, null));
+        create("/api/enrollments", new EnrollmentRequest(studentId, courseIds.get(3), CURRENT_TERM, "A"));
+
+        JsonNode run = send(post("/api/enrollments/archive?before=2021-01-01"));
+        assertThat(run.get("students").asInt()).isEqualTo(1);
+        assertThat(run.get("enrollments").asLong()).isEqualTo(2);
+
+        assertThat(send(get("/api/enrollments/student/" + studentId)).size()).isEqualTo(2);
+        assertThat(send(get("/api/courses/" + courseIds.get(0) + "/enrollment-count")).get("enrollmentCount").asInt()).isZero();
+
+        JsonNode history = send(get("/api/enrollments/student/" + studentId + "/history"));
+        assertThat(history.size()).isEqualTo(4);
+        assertThat(history.get(0).get("studentName").asText()).isEqualTo("Ada Archive");
+        assertThat(history.get(3).get("courseId").asInt()).isEqualTo(courseIds.get(3));
+
+        JsonNode transcript = send(get("/api/students/" + studentId + "/transcript"));
+        assertThat(transcript.get("courses").size()).isEqualTo(4);
+        assertThat(transcript.get("gradedCredits").asInt()).isEqualTo(9);
+        assertThat(transcript.get("gpa").decimalValue()).isEqualByComparingTo("3.67");
+
+        // Nothing left to archive
+        assertThat(send(post("/api/enrollments/archive?before=2021-01-01")).get("enrollments").asLong()).isZero();
+
+        mockMvc.perform(delete("/api/students/" + studentId)).andExpect(status().isNoContent());
+        assertThat(send(get("/api/enrollments/student/" + studentId + "/history")).size()).isZero();
+    }
+
+    @Test
+    public void archive_shouldRejectACutoffInsideTheRetentionPeriod() throws Exception {
+        // retain-for defaults to two years, so last month's enrollments must stay
+        mockMvc.perform(post("/api/enrollments/archive").param("before", LocalDate.now().minusMonths(1).toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode create(String path, Object body) throws Exception {
+        String response = mockMvc.perform(post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+
+    private JsonNode send(RequestBuilder request) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.entity.Course;
+import com.example.studentmanagement.entity.Enrollment;
+import com.example.studentmanagement.entity.EnrollmentId;
+import com.example.studentmanagement.entity.Student;
+import com.example.studentmanagement.repository.CourseRepository;
+import com.example.studentmanagement.repository.EnrollmentRepository;
+import com.example.studentmanagement.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Guards the enrollment listings against N+1 regressions by counting the JDBC statements
+// Hibernate prepares while serving a request.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:enrollment-query-count;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.outbox.relay-enabled=false"
+})
+@AutoConfigureMockMvc
+public class EnrollmentControllerQueryCountTest {
+
+    private static final int STUDENTS = 5;
+    private static final int COURSES = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    private Statistics statistics;
+
+    private Course firstCourse;
+
+    private Student firstStudent;
+
+    private final List<Integer> studentIds = new ArrayList<>();
+
+    @BeforeEach
+    public void seedEnrollments() {
+        List<Course> courses = new ArrayList<>();
+        for (int c = 0; c < COURSES; c++) {
+            Course course = new Course();
+            course.setCourseName("Course " + c);
+            course.setCourseCode("QC" + c);
+            course.setCredits(3);
+            courses.add(courseRepository.save(course));
+        }
+        for (int s = 0; s < STUDENTS; s++) {
+            Student student = new Student();
+            student.setFirstName("First" + s);
+            student.setLastName("Last" + s);
+            student.setEmail("student" + s + "@example.com");
+            student = studentRepository.save(student);
+            studentIds.add(student.getStudentId());
+            for (Course course : courses) {
+                Enrollment enrollment = new Enrollment();
+                enrollment.setId(new EnrollmentId(student.getStudentId(), course.getCourseId()));
+                enrollment.setStudent(student);
+                enrollment.setCourse(course);
+                enrollment.setEnrollmentDate(LocalDate.of(2024, 1, 20));
+                enrollment.setGrade("A");
+                enrollmentRepository.save(enrollment);
+            }
+            if (firstStudent == null) {
+                firstStudent = student;
+            }
+        }
+        firstCourse = courses.get(0);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        enrollmentRepository.deleteAllInBatch();
+        studentRepository.deleteAllInBatch();
+        courseRepository.deleteAllInBatch();
+        firstStudent = null;
+        studentIds.clear();
+    }
+
+    @Test
+    public void getAllEnrollments_shouldUseSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/enrollments"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(STUDENTS * COURSES));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void getEnrollmentsByCourse_shouldUseSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/enrollments/course/{courseId}", firstCourse.getCourseId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(STUDENTS))
+                .andExpect(jsonPath("$[0].courseCode").value(firstCourse.getCourseCode()));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void getEnrollmentsByStudent_shouldUseSingleStatement() throws Exception {
+        mockMvc.perform(get("/api/enrollments/student/{studentId}", firstStudent.getStudentId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(COURSES))
+                .andExpect(jsonPath("$[0].studentName").value("First0 Last0"));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    public void getTranscripts_shouldUseOneStatementForTheCohortAndOneForItsArchives() throws Exception {
+        String ids = studentIds.stream().map(String::valueOf).collect(Collectors.joining(",", "[", "]"));
+        mockMvc.perform(post("/api/students/transcripts").contentType(MediaType.APPLICATION_JSON).content(ids))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(STUDENTS))
+                .andExpect(jsonPath("$[0].courses.length()").value(COURSES))
+                .andExpect(jsonPath("$[0].attemptedCredits").value(COURSES * 3))
+                .andExpect(jsonPath("$[0].gpa").value(4.0));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The keyset-paged listing and the NDJSON export both walk the whole enrollments table: every
+// row once, in key order, however the pages fall.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:enrollment-paging;DB_CLOSE_DELAY=-1",
+        "app.outbox.relay-enabled=false",
+        "app.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+public class EnrollmentPagingTest {
+
+    private static final int STUDENTS = 4;
+    private static final int COURSES = 3;
+    private static final int PAGE_SIZE = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static boolean seeded;
+
+    @BeforeEach
+    public void seedEnrollments() throws Exception {
+        if (seeded) {
+            return;
+        }
+        List<Integer> courseIds = new ArrayList<>();
+        for (int c = 0; c < COURSES; c++) {
+            courseIds.add(id(send(post("/api/courses"), Map.of("courseName", "Paging " + c,
+                    "courseCode", "PG" + c, "credits", 3), 201), "courseId"));
+        }
+        for (int s = 0; s < STUDENTS; s++) {
+            Integer studentId = id(send(post("/api/students"), Map.of("firstName", "Page", "lastName", "Reader" + s,
+                    "email", "page-reader" + s + "@example.com"), 201), "studentId");
+            for (Integer courseId : courseIds) {
+                send(post("/api/enrollments"), new EnrollmentRequest(studentId, courseId,
+                        LocalDate.of(2025, 9, 1), null), 201);
+            }
+        }
+        seeded = true;
+    }
+
+    @Test
+    public void pagingByCursor_shouldReturnEveryRowOnceInKeyOrder() throws Exception {
+        List<String> expected = new ArrayList<>();
+        for (JsonNode row : json(mockMvc.perform(get("/api/enrollments")).andExpect(status().isOk()).andReturn())) {
+            expected.add(key(row));
+        }
+        assertThat(expected).hasSizeGreaterThanOrEqualTo(STUDENTS * COURSES);
+
+        List<String> paged = new ArrayList<>();
+        List<int[]> order = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/enrollments/page").param("size", String.valueOf(PAGE_SIZE));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = json(mockMvc.perform(request).andExpect(status().isOk()).andReturn());
+            assertThat(page.get("content").size()).isLessThanOrEqualTo(PAGE_SIZE);
+            for (JsonNode row : page.get("content")) {
+                paged.add(key(row));
+                order.add(new int[]{row.get("studentId").asInt(), row.get("courseId").asInt()});
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            assertThat(++pages).as("pages").isLessThanOrEqualTo(expected.size());
+        } while (cursor != null);
+
+        assertThat(paged).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(expected);
+        for (int i = 1; i < order.size(); i++) {
+            int[] previous = order.get(i - 1);
+            int[] current = order.get(i);
+            assertThat(previous[0] < current[0] || previous[0] == current[0] && previous[1] < current[1])
+                    .as("row %d after row %d", i, i - 1).isTrue();
+        }
+    }
+
+    @Test
+    public void malformedCursor_shouldAnswer400() throws Exception {
+        mockMvc.perform(get("/api/enrollments/page").param("cursor", "not a cursor!"))
+                .andExpect(status().isBadRequest());
+        String notNumbers = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("abc:def".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/enrollments/page").param("cursor", notNumbers))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void export_shouldWriteOneLinePerRow() throws Exception {
+        int rows = json(mockMvc.perform(get("/api/enrollments")).andExpect(status().isOk()).andReturn()).size();
+
+        MvcResult started = mockMvc.perform(get("/api/enrollments/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult export = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String body = export.getResponse().getContentAsString();
+        assertThat(body).endsWith("\n");
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(rows);
+        for (String line : lines) {
+            assertThat(objectMapper.readTree(line).get("studentId").isInt()).isTrue();
+        }
+    }
+
+    private static String key(JsonNode row) {
+        return row.get("studentId").asInt() + ":" + row.get("courseId").asInt();
+    }
+
+    private JsonNode json(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private Integer id(MvcResult result, String field) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get(field).asInt();
+    }
+
+    private MvcResult send(MockHttpServletRequestBuilder request,
+                           Object body, int expectedStatus) throws Exception {
+        return mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().is(expectedStatus))
+                .andReturn();
+    }
+}
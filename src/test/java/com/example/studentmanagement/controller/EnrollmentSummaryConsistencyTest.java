@@ -0,0 +1,183 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Every write path adjusts enrollment_summaries incrementally. After each one the table must
+// equal what a full GROUP BY over the enrollments table gives. Archived enrollments stay counted,
+// so archiving leaves the table as it is, and a rebuild gives the same table again. Concurrent
+// writes creating the same bucket must not collide.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:summary-consistency;DB_CLOSE_DELAY=-1",
+        "app.outbox.relay-enabled=false",
+        "app.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+public class EnrollmentSummaryConsistencyTest {
+
+    private static final int REGRADES = 8;
+
+    private static final String SUMMARIES = "select course_id, period, grade, enrollment_count "
+            + "from enrollment_summaries order by course_id, period, grade";
+
+    private static final String RECOMPUTED = "select e.course_id, "
+            + "coalesce(formatdatetime(e.enrollment_date, 'yyyy-MM'), '') as period, "
+            + "coalesce(e.grade, '') as grade, count(*) as enrollment_count from enrollments e "
+            + "group by e.course_id, coalesce(formatdatetime(e.enrollment_date, 'yyyy-MM'), ''), coalesce(e.grade, '') "
+            + "order by course_id, period, grade";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void summaries_shouldMatchTheEnrollmentsAfterEveryWritePath() throws Exception {
+        List<Integer> courseIds = new ArrayList<>();
+        for (int c = 0; c < 2; c++) {
+            courseIds.add(send(post("/api/courses"), Map.of("courseName", "Summary " + c, "courseCode", "SU" + c,
+                    "credits", 3), 201).get("courseId").asInt());
+        }
+        List<Integer> studentIds = new ArrayList<>();
+        for (int s = 0; s < 4; s++) {
+            studentIds.add(send(post("/api/students"), Map.of("firstName", "First" + s, "lastName", "Last" + s,
+                    "email", "summary" + s + "@example.com"), 201).get("studentId").asInt());
+        }
+        LocalDate old = LocalDate.of(2019, 3, 4);
+        LocalDate fall = LocalDate.of(2025, 9, 1);
+
+        // Create
+        send(post("/api/enrollments"), new EnrollmentRequest(studentIds.get(0), courseIds.get(0), old, "A"), 201);
+        send(post("/api/enrollments"), new EnrollmentRequest(studentIds.get(1), courseIds.get(0), fall, null), 201);
+        assertConsistent();
+
+        // Upsert: an update that moves buckets, then an insert
+        send(post("/api/enrollments/upsert"), new EnrollmentRequest(studentIds.get(1), courseIds.get(0), fall, "B"), 200);
+        send(post("/api/enrollments/upsert"), new EnrollmentRequest(studentIds.get(2), courseIds.get(1), fall, "C"), 201);
+        assertConsistent();
+
+        // Update
+        send(put("/api/enrollments/student/" + studentIds.get(2) + "/course/" + courseIds.get(1)),
+                new EnrollmentRequest(studentIds.get(2), courseIds.get(1), fall, "A"), 200);
+        assertConsistent();
+
+        // Bulk import
+        send(post("/api/enrollments/bulk"), List.of(
+                new EnrollmentRequest(studentIds.get(3), courseIds.get(0), old, "B"),
+                new EnrollmentRequest(studentIds.get(3), courseIds.get(1), fall, null),
+                new EnrollmentRequest(studentIds.get(0), courseIds.get(1), old, "A")), 200);
+        assertConsistent();
+
+        // Single delete
+        mockMvc.perform(delete("/api/enrollments/student/" + studentIds.get(3) + "/course/" + courseIds.get(1)))
+                .andExpect(status().isNoContent());
+        assertConsistent();
+
+        // Archive takes the old graded rows out of the table but not out of the analytics
+        List<Map<String, Object>> beforeArchive = jdbcTemplate.queryForList(SUMMARIES);
+        JsonNode termsBeforeArchive = send(get("/api/analytics/courses/" + courseIds.get(0) + "/terms"), null, 200);
+        JsonNode run = send(post("/api/enrollments/archive?before=2021-01-01"), null, 200);
+        assertThat(run.get("enrollments").asLong()).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList(SUMMARIES)).isEqualTo(beforeArchive);
+        JsonNode terms = send(get("/api/analytics/courses/" + courseIds.get(0) + "/terms"), null, 200);
+        assertThat(terms).isEqualTo(termsBeforeArchive);
+        assertThat(terms.size()).isEqualTo(2);
+        assertThat(terms.get(0).get("term").asText()).isEqualTo("2019-spring");
+        assertThat(terms.get(0).get("count").asLong()).isEqualTo(2);
+        assertRebuildUnchanged();
+
+        // Bulk delete of students, one of them with archived enrollments
+        send(post("/api/students/bulk-delete"), List.of(studentIds.get(0), studentIds.get(1), studentIds.get(2)), 200);
+        assertThat(jdbcTemplate.queryForList(SUMMARIES).stream()
+                .filter(row -> courseIds.contains(row.get("COURSE_ID")))).containsExactly(
+                Map.of("COURSE_ID", courseIds.get(0), "PERIOD", "2019-03", "GRADE", "B", "ENROLLMENT_COUNT", 1L));
+        assertRebuildUnchanged();
+    }
+
+    @Test
+    public void concurrentRegrades_intoANewBucket_shouldAllSucceed() throws Exception {
+        Integer courseId = send(post("/api/courses"), Map.of("courseName", "Regrades", "courseCode", "SUR",
+                "credits", 3), 201).get("courseId").asInt();
+        LocalDate fall = LocalDate.of(2025, 9, 1);
+        List<Integer> studentIds = new ArrayList<>();
+        for (int s = 0; s < REGRADES; s++) {
+            Integer studentId = send(post("/api/students"), Map.of("firstName", "Re" + s, "lastName", "Grade",
+                    "email", "regrade" + s + "@example.com"), 201).get("studentId").asInt();
+            send(post("/api/enrollments"), new EnrollmentRequest(studentId, courseId, fall, null), 201);
+            studentIds.add(studentId);
+        }
+
+        // Every regrade moves its row into the same bucket, which none of them finds yet
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> responses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(REGRADES)) {
+            for (Integer studentId : studentIds) {
+                String body = objectMapper.writeValueAsString(new EnrollmentRequest(studentId, courseId, fall, "A"));
+                responses.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(put("/api/enrollments/student/" + studentId + "/course/" + courseId)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .content(body))
+                            .andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+        }
+
+        for (Future<Integer> response : responses) {
+            assertThat(response.get()).isEqualTo(200);
+        }
+        assertThat(jdbcTemplate.queryForList("select grade, enrollment_count from enrollment_summaries "
+                + "where course_id = ?", courseId))
+                .containsExactly(Map.of("GRADE", "A", "ENROLLMENT_COUNT", (long) REGRADES));
+    }
+
+    private void assertConsistent() {
+        assertThat(jdbcTemplate.queryForList(SUMMARIES)).isEqualTo(jdbcTemplate.queryForList(RECOMPUTED));
+    }
+
+    private void assertRebuildUnchanged() throws Exception {
+        List<Map<String, Object>> summaries = jdbcTemplate.queryForList(SUMMARIES);
+        send(post("/api/analytics/rebuild"), null, 200);
+        assertThat(jdbcTemplate.queryForList(SUMMARIES)).isEqualTo(summaries);
+    }
+
+    private JsonNode send(MockHttpServletRequestBuilder request, Object body, int expectedStatus) throws Exception {
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+        }
+        String response = mockMvc.perform(request)
+                .andExpect(status().is(expectedStatus))
+                .andReturn().getResponse().getContentAsString();
+        return response.isEmpty() ? null : objectMapper.readTree(response);
+    }
+}
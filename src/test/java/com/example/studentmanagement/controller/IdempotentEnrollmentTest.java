@@ -0,0 +1,128 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.example.studentmanagement.repository.CourseSeatRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Retried enrollment writes: a plain duplicate is a 409, a retry carrying its Idempotency-Key
+// replays the first answer, and the seat is taken once whichever way the pair was written.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:idempotent-enrollments;DB_CLOSE_DELAY=-1",
+        "app.outbox.relay-enabled=false",
+        "app.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+public class IdempotentEnrollmentTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CourseSeatRepository courseSeatRepository;
+
+    @Test
+    public void duplicatePost_withoutKey_shouldAnswer409() throws Exception {
+        EnrollmentRequest request = new EnrollmentRequest(student("dup@example.com"), course("DUP1"),
+                LocalDate.of(2025, 9, 1), null);
+
+        send(post("/api/enrollments"), request, 201);
+        send(post("/api/enrollments"), request, 409);
+
+        assertThat(seatsTaken(request.getCourseId())).isEqualTo(1);
+    }
+
+    @Test
+    public void retryWithSameKey_shouldReplayTheFirstResponse() throws Exception {
+        EnrollmentRequest request = new EnrollmentRequest(student("replay@example.com"), course("REP1"),
+                LocalDate.of(2025, 9, 1), "B");
+
+        MvcResult first = send(post("/api/enrollments").header(IdempotencyCache.HEADER, "retry-1"), request, 201);
+        MvcResult retry = send(post("/api/enrollments").header(IdempotencyCache.HEADER, "retry-1"), request, 201);
+
+        assertThat(first.getResponse().getHeader(IdempotencyCache.REPLAYED_HEADER)).isNull();
+        assertThat(retry.getResponse().getHeader(IdempotencyCache.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getResponse().getContentAsString()).isEqualTo(first.getResponse().getContentAsString());
+        assertThat(seatsTaken(request.getCourseId())).isEqualTo(1);
+    }
+
+    @Test
+    public void sameKeyWithDifferentBody_shouldAnswer422() throws Exception {
+        Integer courseId = course("KEY1");
+        EnrollmentRequest first = new EnrollmentRequest(student("key-a@example.com"), courseId,
+                LocalDate.of(2025, 9, 1), null);
+        EnrollmentRequest other = new EnrollmentRequest(student("key-b@example.com"), courseId,
+                LocalDate.of(2025, 9, 1), null);
+
+        send(post("/api/enrollments").header(IdempotencyCache.HEADER, "reused-1"), first, 201);
+        send(post("/api/enrollments").header(IdempotencyCache.HEADER, "reused-1"), other, 422);
+
+        assertThat(seatsTaken(courseId)).isEqualTo(1);
+    }
+
+    @Test
+    public void sameKeyOnAnotherEndpoint_shouldNotReplay() throws Exception {
+        EnrollmentRequest request = new EnrollmentRequest(student("scope@example.com"), course("SCO1"),
+                LocalDate.of(2025, 9, 1), null);
+
+        send(post("/api/enrollments").header(IdempotencyCache.HEADER, "scoped-1"), request, 201);
+        // Runs as a fresh request and finds the pair already enrolled
+        send(post("/api/enrollments/commands").header(IdempotencyCache.HEADER, "scoped-1"), request, 409);
+    }
+
+    @Test
+    public void repeatedUpsert_shouldTakeOneSeat() throws Exception {
+        EnrollmentRequest request = new EnrollmentRequest(student("upsert@example.com"), course("UPS1"),
+                LocalDate.of(2025, 9, 1), null);
+
+        send(post("/api/enrollments/upsert"), request, 201);
+        request.setGrade("A");
+        send(post("/api/enrollments/upsert"), request, 200);
+        send(post("/api/enrollments"), request, 409);
+
+        assertThat(seatsTaken(request.getCourseId())).isEqualTo(1);
+    }
+
+    private Integer student(String email) throws Exception {
+        return id(send(post("/api/students"), Map.of("firstName", "Ida", "lastName", "Empotent",
+                "email", email), 201), "studentId");
+    }
+
+    private Integer course(String code) throws Exception {
+        return id(send(post("/api/courses"), Map.of("courseName", "Retries " + code, "courseCode", code,
+                "credits", 3), 201), "courseId");
+    }
+
+    private int seatsTaken(Integer courseId) {
+        return courseSeatRepository.findEnrollmentCount(courseId).orElseThrow().getEnrollmentCount();
+    }
+
+    private Integer id(MvcResult result, String field) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get(field).asInt();
+    }
+
+    private MvcResult send(MockHttpServletRequestBuilder request,
+                           Object body, int expectedStatus) throws Exception {
+        return mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().is(expectedStatus))
+                .andReturn();
+    }
+}
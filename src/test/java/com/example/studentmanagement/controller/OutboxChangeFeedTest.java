@@ -0,0 +1,232 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import com.example.studentmanagement.entity.OutboxEvent;
+import com.example.studentmanagement.entity.Student;
+import com.example.studentmanagement.repository.OutboxEventRepository;
+import com.example.studentmanagement.repository.StudentRepository;
+import com.example.studentmanagement.service.OutboxService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Outbox events are written by the same transaction as the change they describe, so a rolled-back
+// write leaves none behind. The relay numbers committed events in commit order, and the polling
+// feed and the SSE stream both hand them out by consecutive offset.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-change-feed;DB_CLOSE_DELAY=-1",
+        "app.outbox.poll-interval=50ms",
+        "app.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+public class OutboxChangeFeedTest {
+
+    private static final Pattern SSE_ID = Pattern.compile("(?m)^id:(\\d+)$");
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void committedWrites_shouldReachFeedAndStreamInOffsetOrder() throws Exception {
+        long start = outboxEventRepository.findLastOffset();
+        MvcResult stream = mockMvc.perform(get("/api/changes/stream").param("after", String.valueOf(start)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        Integer studentId = id(send(post("/api/students"), Map.of("firstName", "Otto", "lastName", "Box",
+                "email", "outbox@example.com"), 201), "studentId");
+        Integer courseId = id(send(post("/api/courses"), Map.of("courseName", "Messaging", "courseCode", "OBX1",
+                "credits", 3, "capacity", 1), 201), "courseId");
+        send(post("/api/enrollments"), new EnrollmentRequest(studentId, courseId, LocalDate.of(2025, 9, 1), null), 201);
+
+        // The course is full: the enrollment rolls back, and its event with it
+        Integer otherId = id(send(post("/api/students"), Map.of("firstName", "Ole", "lastName", "Box",
+                "email", "outbox-full@example.com"), 201), "studentId");
+        send(post("/api/enrollments"), new EnrollmentRequest(otherId, courseId, LocalDate.of(2025, 9, 1), null), 409);
+
+        List<String> written = outboxEventRepository.findAll().stream()
+                .map(OutboxEvent::getAggregateId)
+                .toList();
+        assertThat(written).contains(studentId + ":" + courseId).doesNotContain(otherId + ":" + courseId);
+
+        List<String> expected = List.of(
+                "student.created:" + studentId,
+                "course.created:" + courseId,
+                "enrollment.created:" + studentId + ":" + courseId,
+                "student.created:" + otherId);
+
+        JsonNode page = await(() -> feed(start), node -> node.get("events").size() >= expected.size());
+        List<String> received = new ArrayList<>();
+        long offset = start;
+        for (JsonNode event : page.get("events")) {
+            assertThat(event.get("offset").asLong()).isEqualTo(++offset);
+            received.add(event.get("aggregateType").asText() + "." + event.get("type").asText()
+                    + ":" + event.get("aggregateId").asText());
+        }
+        assertThat(received).isEqualTo(expected);
+        assertThat(page.get("nextOffset").asLong()).isEqualTo(start + expected.size());
+
+        String sse = await(() -> stream.getResponse().getContentAsString(),
+                body -> offsets(body).size() >= expected.size());
+        List<Long> streamed = offsets(sse);
+        for (int i = 0; i < streamed.size(); i++) {
+            assertThat(streamed.get(i)).isEqualTo(start + i + 1);
+        }
+        assertThat(sse).contains("event:enrollment.created");
+    }
+
+    @Test
+    public void outboxEvent_shouldOnlyExistWithItsTransaction() {
+        Student student = new Student();
+        student.setFirstName("Rolf");
+        student.setLastName("Back");
+        student.setEmail("rollback@example.com");
+        assertThatThrownBy(() -> outboxService.student(OutboxService.CREATED, student))
+                .isInstanceOf(IllegalTransactionStateException.class);
+
+        long students = studentRepository.count();
+        long events = outboxEventRepository.count();
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxService.student(OutboxService.CREATED, studentRepository.save(student));
+            assertThat(outboxEventRepository.count()).isEqualTo(events + 1);
+            status.setRollbackOnly();
+        });
+        assertThat(studentRepository.count()).isEqualTo(students);
+        assertThat(outboxEventRepository.count()).isEqualTo(events);
+    }
+
+    @Test
+    public void events_shouldBeNumberedInCommitOrderNotWriteOrder() throws Exception {
+        long start = outboxEventRepository.findLastOffset();
+        CountDownLatch firstWritten = new CountDownLatch(1);
+        CountDownLatch secondCommitted = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            // Writes its event first, so it gets the lower event id, but commits last
+            Future<?> first = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                outboxService.student(OutboxService.UPDATED, student(900_001));
+                firstWritten.countDown();
+                try {
+                    secondCommitted.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            firstWritten.await();
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxService.student(OutboxService.UPDATED, student(900_002)));
+            secondCommitted.countDown();
+            first.get();
+        }
+
+        Map<String, OutboxEvent> written = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateId().startsWith("90000"))
+                .collect(Collectors.toMap(OutboxEvent::getAggregateId, Function.identity()));
+        assertThat(written.get("900001").getId()).isLessThan(written.get("900002").getId());
+        assertThat(written.get("900001").getCommitOrder()).isGreaterThan(written.get("900002").getCommitOrder());
+
+        JsonNode page = await(() -> feed(start), node -> node.get("events").size() >= 2);
+        assertThat(page.get("events").get(0).get("aggregateId").asText()).isEqualTo("900002");
+        assertThat(page.get("events").get(1).get("aggregateId").asText()).isEqualTo("900001");
+    }
+
+    private static Student student(int id) {
+        Student student = new Student();
+        student.setStudentId(id);
+        student.setFirstName("Commit");
+        student.setLastName("Order" + id);
+        student.setEmail("commit-order-" + id + "@example.com");
+        return student;
+    }
+
+    private JsonNode feed(long after) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/changes").param("after", String.valueOf(after))
+                        .param("limit", "1000"))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString());
+    }
+
+    private static List<Long> offsets(String sse) {
+        List<Long> offsets = new ArrayList<>();
+        Matcher matcher = SSE_ID.matcher(sse);
+        while (matcher.find()) {
+            offsets.add(Long.parseLong(matcher.group(1)));
+        }
+        return offsets;
+    }
+
+    private static <T> T await(Probe<T> probe, Predicate<T> done) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        T value = probe.get();
+        while (!done.test(value) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            value = probe.get();
+        }
+        assertThat(done.test(value)).as("condition reached within %d ms: %s", TIMEOUT_MILLIS, value).isTrue();
+        return value;
+    }
+
+    private Integer id(MvcResult result, String field) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get(field).asInt();
+    }
+
+    private MvcResult send(MockHttpServletRequestBuilder request,
+                           Object body, int expectedStatus) throws Exception {
+        return mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().is(expectedStatus))
+                .andReturn();
+    }
+
+    @FunctionalInterface
+    private interface Probe<T> {
+        T get() throws Exception;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.studentmanagement.controller;
+
+import com.example.studentmanagement.entity.Student;
+import com.example.studentmanagement.repository.StudentRepository;
+import com.example.studentmanagement.service.OutboxService;
+import com.example.studentmanagement.service.SearchIndexService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// The search index follows committed writes, both from this instance's after-commit hooks and
+// from the change feed, and a deleted row stays deleted whatever arrives after it.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search-index;DB_CLOSE_DELAY=-1",
+        "app.outbox.poll-interval=50ms",
+        "app.admission.enabled=false"
+})
+@AutoConfigureMockMvc
+public class SearchIndexTest {
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    public void prefixQuery_shouldMatchEveryWord() throws Exception {
+        Integer studentId = id(send(post("/api/students"), Map.of("firstName", "Janelle", "lastName", "Smithers",
+                "email", "jsmithers@example.com"), 201), "studentId");
+        Integer courseId = id(send(post("/api/courses"), Map.of("courseName", "Smithing Basics",
+                "courseCode", "SMI101", "credits", 3), 201), "courseId");
+
+        assertThat(search("jane smi", null)).containsExactly("student:" + studentId);
+        assertThat(search("smi", null)).contains("student:" + studentId, "course:" + courseId);
+        assertThat(search("smi", "course")).contains("course:" + courseId).doesNotContain("student:" + studentId);
+        assertThat(search("janelle jones", null)).isEmpty();
+    }
+
+    @Test
+    public void update_shouldReplaceTheOldTerms() throws Exception {
+        Integer studentId = id(send(post("/api/students"), Map.of("firstName", "Quentin", "lastName", "Oldname",
+                "email", "quentin@example.com"), 201), "studentId");
+        send(put("/api/students/" + studentId), Map.of("firstName", "Quentin", "lastName", "Newname",
+                "email", "quentin@example.com"), 200);
+
+        assertThat(search("quentin newname", null)).containsExactly("student:" + studentId);
+        assertThat(search("oldname", null)).isEmpty();
+
+        // The created event, older than the update, arrives through the feed afterwards
+        awaitFeed("quentin");
+        assertThat(search("oldname", null)).isEmpty();
+        assertThat(search("quentin newname", null)).containsExactly("student:" + studentId);
+    }
+
+    @Test
+    public void delete_shouldStayInvisible() throws Exception {
+        Integer studentId = id(send(post("/api/students"), Map.of("firstName", "Gwendolyn", "lastName", "Gone",
+                "email", "gone@example.com"), 201), "studentId");
+        assertThat(search("gwendolyn", null)).containsExactly("student:" + studentId);
+
+        mockMvc.perform(delete("/api/students/" + studentId)).andExpect(status().isNoContent());
+        assertThat(search("gwendolyn", null)).isEmpty();
+
+        // Neither the late created event nor a hit read before the delete brings it back
+        awaitFeed("gwendolyn");
+        searchIndexService.massIndex();
+        assertThat(search("gwendolyn", null)).isEmpty();
+    }
+
+    @Test
+    public void feedOnlyWrite_shouldBecomeSearchable() throws Exception {
+        Integer studentId = writeFromAnotherInstance("Fenella", "feedonly@example.com");
+
+        assertThat(await(() -> search("fenella", null), hits -> !hits.isEmpty()))
+                .containsExactly("student:" + studentId);
+    }
+
+    // Written as another instance would: the change feed is the only way into this index
+    private Integer writeFromAnotherInstance(String firstName, String email) {
+        Student student = new Student();
+        student.setFirstName(firstName);
+        student.setLastName("Elsewhere");
+        student.setEmail(email);
+        return transactionTemplate.execute(status -> {
+            Student saved = studentRepository.save(student);
+            outboxService.student(OutboxService.CREATED, saved);
+            return saved.getStudentId();
+        });
+    }
+
+    // The feed is applied in commit order, so once a later write shows up every earlier event has too
+    private void awaitFeed(String marker) throws Exception {
+        String name = "Marker" + marker;
+        writeFromAnotherInstance(name, "feed-marker-" + System.nanoTime() + "@example.com");
+        await(() -> search(name, null), hits -> !hits.isEmpty());
+    }
+
+    private List<String> search(String query, String type) throws Exception {
+        MockHttpServletRequestBuilder request = get("/api/search").param("q", query);
+        if (type != null) {
+            request.param("type", type);
+        }
+        MvcResult result = mockMvc.perform(request).andExpect(status().isOk()).andReturn();
+        List<String> keys = new ArrayList<>();
+        for (JsonNode hit : objectMapper.readTree(result.getResponse().getContentAsString())) {
+            keys.add(hit.get("type").asText() + ":" + hit.get("id").asInt());
+        }
+        return keys;
+    }
+
+    private static <T> T await(Probe<T> probe, Predicate<T> done) throws Exception {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        T value = probe.get();
+        while (!done.test(value) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            value = probe.get();
+        }
+        assertThat(done.test(value)).as("condition reached within %d ms: %s", TIMEOUT_MILLIS, value).isTrue();
+        return value;
+    }
+
+    private Integer id(MvcResult result, String field) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get(field).asInt();
+    }
+
+    private MvcResult send(MockHttpServletRequestBuilder request,
+                           Object body, int expectedStatus) throws Exception {
+        return mockMvc.perform(request.contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().is(expectedStatus))
+                .andReturn();
+    }
+
+    @FunctionalInterface
+    private interface Probe<T> {
+        T get() throws Exception;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.studentmanagement.repository;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs the Flyway migrations into a fresh H2 database; ddl-auto=validate then fails the
+// context if they drift from the entities. Each case calls a repository finder, captures the
+// enrollments statement Hibernate generated for it through a datasource-proxy listener, and
+// EXPLAINs that statement with the parameters it bound. A changed finder or a change in
+// Hibernate's SQL is checked as it would actually run.
+@DataJpaTest
+@Import(EnrollmentIndexPlanTest.CaptureConfig.class)
+public class EnrollmentIndexPlanTest {
+
+    private static final StatementCapture STATEMENTS = new StatementCapture();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Test
+    public void courseRoster_shouldUseRosterIndex() {
+        assertThat(explain(() -> enrollmentRepository.findDTOsByCourseId(1)))
+                .doesNotContainIgnoringCase("tableScan")
+                .containsIgnoringCase("idx_enrollments_roster");
+    }
+
+    @Test
+    public void courseRosterPage_shouldSeekOnRosterIndex() {
+        assertThat(explain(() -> enrollmentRepository.findDTOsByCourseIdAfter(1, 100, PageRequest.of(0, 50))))
+                .doesNotContainIgnoringCase("tableScan")
+                .containsIgnoringCase("idx_enrollments_roster");
+    }
+
+    @Test
+    public void studentTranscript_shouldUseAnIndex() {
+        // The primary key serves as well as idx_enrollments_transcript
+        assertThat(explain(() -> enrollmentRepository.findDTOsByStudentId(1)))
+                .doesNotContainIgnoringCase("tableScan");
+        assertThat(explain(() -> enrollmentRepository.findDTOsByStudentIdAfter(1, 0, PageRequest.of(0, 50))))
+                .doesNotContainIgnoringCase("tableScan");
+    }
+
+    @Test
+    public void archiveScan_shouldUseDateIndex() {
+        assertThat(explain(() -> enrollmentRepository.findStudentIdsToArchive(0, LocalDate.of(2020, 1, 1), Limit.of(200))))
+                .doesNotContainIgnoringCase("tableScan")
+                .containsIgnoringCase("idx_enrollments_enrollment_date");
+    }
+
+    // EXPLAINs the last statement on the enrollments table that the finder executed
+    private String explain(Runnable finder) {
+        STATEMENTS.clear();
+        finder.run();
+        QueryInfo query = STATEMENTS.last("enrollments");
+        assertThat(query).as("statement on enrollments").isNotNull();
+        return jdbcTemplate.queryForObject("explain " + query.getQuery(), String.class, parameters(query));
+    }
+
+    private static Object[] parameters(QueryInfo query) {
+        if (query.getParametersList().isEmpty()) {
+            return new Object[0];
+        }
+        List<ParameterSetOperation> operations = new ArrayList<>(query.getParametersList().get(0));
+        operations.sort(Comparator.comparing(operation -> (Integer) operation.getArgs()[0]));
+        return operations.stream()
+                .map(operation -> operation.getMethod().getName().equals("setNull") ? null : operation.getArgs()[1])
+                .toArray();
+    }
+
+    static class StatementCapture implements QueryExecutionListener {
+
+        private final List<QueryInfo> queries = new CopyOnWriteArrayList<>();
+
+        void clear() {
+            queries.clear();
+        }
+
+        QueryInfo last(String table) {
+            for (int i = queries.size() - 1; i >= 0; i--) {
+                String sql = queries.get(i).getQuery().toLowerCase();
+                if (sql.contains(" " + table + " ") && !sql.startsWith("explain")) {
+                    return queries.get(i);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            queries.addAll(queryInfoList);
+        }
+    }
+
+    @TestConfiguration
+    static class CaptureConfig {
+
+        // Static so registering the post-processor doesn't instantiate this configuration early
+        @Bean
+        static BeanPostProcessor capturingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                        return ProxyDataSourceBuilder.create(dataSource).listener(STATEMENTS).build();
+                    }
+                    return bean;
+                }
+            };
+        }
+    }
+}
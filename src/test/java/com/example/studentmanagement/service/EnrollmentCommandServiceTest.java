@@ -0,0 +1,96 @@
+package com.example.studentmanagement.service;
+
+import com.example.studentmanagement.config.EnrollmentCommandProperties;
+import com.example.studentmanagement.dto.EnrollmentCommandStatus;
+import com.example.studentmanagement.dto.EnrollmentCommandStatus.State;
+import com.example.studentmanagement.dto.EnrollmentRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class EnrollmentCommandServiceTest {
+
+    private static final int MAX_STATUSES = 10;
+
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    private final EnrollmentImportService importService = mock(EnrollmentImportService.class);
+
+    private final CountDownLatch writable = new CountDownLatch(1);
+
+    private EnrollmentCommandService service;
+
+    @AfterEach
+    public void stop() {
+        writable.countDown();
+        service.stop();
+    }
+
+    @Test
+    public void status_shouldBeServedFromTheCacheAndReplacedWhenWritten() throws Exception {
+        start();
+        EnrollmentCommandStatus accepted = service.submit(request(1)).orElseThrow();
+
+        // Both lookups hit the entry recorded on submit
+        assertThat(service.status(accepted.getCommandId())).containsSame(accepted);
+        assertThat(service.status(accepted.getCommandId())).containsSame(accepted);
+        assertThat(accepted.getState()).isEqualTo(State.QUEUED);
+
+        writable.countDown();
+        await(() -> service.status(accepted.getCommandId()).orElseThrow().getState() == State.ENROLLED);
+        assertThat(service.status("unknown")).isEmpty();
+    }
+
+    @Test
+    public void statuses_shouldBeBoundedByMaxStatuses() throws Exception {
+        start();
+        writable.countDown();
+        List<String> commandIds = new ArrayList<>();
+        for (int i = 0; i < MAX_STATUSES * 5; i++) {
+            commandIds.add(service.submit(request(i)).orElseThrow().getCommandId());
+        }
+
+        await(() -> commandIds.stream().filter(id -> service.status(id).isPresent()).count() <= MAX_STATUSES);
+    }
+
+    private void start() {
+        when(importService.importOutcomes(anyList())).thenAnswer(invocation -> {
+            writable.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            List<?> chunk = invocation.getArgument(0);
+            return new ArrayList<>(Collections.nCopies(chunk.size(), EnrollmentOutcome.INSERTED));
+        });
+        service = new EnrollmentCommandService(importService, properties());
+        service.start();
+    }
+
+    private static EnrollmentCommandProperties properties() {
+        EnrollmentCommandProperties properties = new EnrollmentCommandProperties();
+        properties.setWriters(1);
+        properties.setMaxStatuses(MAX_STATUSES);
+        return properties;
+    }
+
+    private static EnrollmentRequest request(int studentId) {
+        return new EnrollmentRequest(studentId, 1, LocalDate.of(2025, 9, 1), null);
+    }
+
+    private static void await(BooleanSupplier done) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!done.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(done.getAsBoolean()).as("condition reached within %d ms", TIMEOUT_MILLIS).isTrue();
+    }
+}
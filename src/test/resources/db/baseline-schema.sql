@@ -0,0 +1,28 @@
+-- A database as the original application left it: created by ddl-auto: update, with ids from
+-- IDENTITY columns, no version or seat columns and no Flyway history.
+create table students (student_id integer generated by default as identity, enrollment_date date,
+    email varchar(100), first_name varchar(50) not null, last_name varchar(50) not null,
+    primary key (student_id));
+alter table if exists students add constraint UK_students_email unique (email);
+
+create table courses (course_id integer generated by default as identity, credits integer,
+    course_code varchar(20), course_name varchar(100) not null, primary key (course_id));
+alter table if exists courses add constraint UK_courses_course_code unique (course_code);
+
+create table enrollments (course_id integer not null, student_id integer not null, enrollment_date date,
+    grade varchar(2), primary key (course_id, student_id));
+alter table if exists enrollments add constraint FK_enrollments_course foreign key (course_id) references courses;
+alter table if exists enrollments add constraint FK_enrollments_student foreign key (student_id) references students;
+
+insert into students (first_name, last_name, email, enrollment_date) values
+    ('Ada', 'Legacy', 'ada@legacy.example', '2019-09-01'),
+    ('Bo', 'Legacy', 'bo@legacy.example', '2019-09-01');
+
+insert into courses (course_name, course_code, credits) values
+    ('Old Algebra', 'OLD1', 3),
+    ('Old Biology', 'OLD2', 4);
+
+insert into enrollments (student_id, course_id, enrollment_date, grade) values
+    (1, 1, '2019-09-02', 'A'),
+    (2, 1, '2019-09-02', null),
+    (1, 2, '2020-02-03', 'B');